@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.cql3.UntypedResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CQL read and write throughput and latency against an embedded node, through the in-VM session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 10, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-Dcassandra.boot_without_jna=true"})
+@Threads(8)
+public class CqlBenchmark {
+
+    private static final String KEYSPACE = "benchmark";
+
+    @Param({"1000"})
+    int keys;
+
+    @Param({"256"})
+    int valueSize;
+
+    private EmbeddedNode node;
+    private PreparedQuery write;
+    private PreparedQuery read;
+    private ByteBuffer value;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        node = new EmbeddedNode();
+        node.start();
+
+        final CqlSession session = node.newSession(8);
+        session.execute("CREATE KEYSPACE IF NOT EXISTS " + KEYSPACE
+                + " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': 1}");
+        session.execute("CREATE TABLE IF NOT EXISTS " + KEYSPACE + ".kv (k int PRIMARY KEY, v blob)");
+
+        write = session.prepare("INSERT INTO " + KEYSPACE + ".kv (k, v) VALUES (?, ?)");
+        read = session.prepare("SELECT v FROM " + KEYSPACE + ".kv WHERE k = ?");
+
+        final byte[] bytes = new byte[valueSize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        value = ByteBuffer.wrap(bytes);
+
+        // every read hits a row
+        for (int k = 0; k < keys; k++) {
+            write.execute(k, value.duplicate());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        node.stop();
+    }
+
+    @Benchmark
+    public UntypedResultSet write() throws Exception {
+        return write.execute(ThreadLocalRandom.current().nextInt(keys), value.duplicate());
+    }
+
+    @Benchmark
+    public UntypedResultSet read() throws Exception {
+        return read.execute(ThreadLocalRandom.current().nextInt(keys));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.StartException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A single cassandra node running in the benchmark JVM, outside of a server.
+ * The {@link CassandraService} is installed into a plain MSC container, with the data directories
+ * in a temporary directory.
+ */
+class EmbeddedNode {
+
+    static final String CLUSTER_NAME = "benchmark";
+
+    static final PathAddress CLUSTER_ADDRESS = PathAddress.pathAddress(CassandraExtension.SUBSYSTEM_PATH,
+            PathElement.pathElement(CassandraModel.CLUSTER, CLUSTER_NAME));
+
+    private final File baseDir;
+    private final ServiceContainer container;
+    private final ModelNode clusterModel;
+    private ServiceController<CassandraService> controller;
+    private ExecutorService sessionExecutor;
+
+    EmbeddedNode() throws IOException {
+        this(defaultModel());
+    }
+
+    EmbeddedNode(ModelNode clusterModel) throws IOException {
+        this.clusterModel = clusterModel;
+        this.baseDir = Files.createTempDirectory("cassandra-benchmark").toFile();
+        this.container = ServiceContainer.Factory.create("cassandra-benchmark");
+    }
+
+    /**
+     * The model of a single node cluster on the loopback interface, without client transports.
+     * The benchmarks go through the in-VM session.
+     */
+    static ModelNode defaultModel() {
+        final ModelNode model = new ModelNode();
+        model.get(CassandraModel.LISTEN_ADDRESS).set("127.0.0.1");
+        model.get(CassandraModel.SEEDS).set("127.0.0.1");
+        model.get(CassandraModel.START_NATIVE_TRANSPORT).set(false);
+        model.get(CassandraModel.START_RPC).set(false);
+        return model;
+    }
+
+    void start() throws Exception {
+        final String dataDir = baseDir.getAbsolutePath();
+        final PathManagerService pathManager = new PathManagerService() {
+            {
+                addHardcodedAbsolutePath(container, ServerEnvironment.SERVER_DATA_DIR, dataDir);
+            }
+        };
+        container.addService(PathManagerService.SERVICE_NAME, pathManager).install();
+        install();
+    }
+
+    /**
+     * Installs a new cassandra service, created from the cluster model like {@link ClusterAdd} does,
+     * and waits until the node is up.
+     */
+    void install() throws Exception {
+        final CassandraService service = new CassandraService(CLUSTER_NAME,
+                ClusterAdd.createServiceConfig(ExpressionResolver.TEST_RESOLVER, CLUSTER_ADDRESS, clusterModel));
+        controller = container.addService(ClusterAdd.serviceName(CLUSTER_NAME), service)
+                .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManagerInjector())
+                .install();
+        container.awaitStability();
+        if (controller.getState() != ServiceController.State.UP) {
+            final StartException failure = controller.getStartException();
+            throw new IllegalStateException("Cassandra node failed to start", failure);
+        }
+    }
+
+    /**
+     * Removes the cassandra service and waits until the node is stopped.
+     */
+    void remove() throws InterruptedException {
+        controller.setMode(ServiceController.Mode.REMOVE);
+        container.awaitStability();
+    }
+
+    /**
+     * A session as installed by {@link CqlSessionService}, executing the async requests on {@code threads} threads.
+     */
+    CqlSession newSession(int threads) {
+        sessionExecutor = Executors.newFixedThreadPool(threads);
+        return new LocalCqlSession(MoreExecutors.listeningDecorator(sessionExecutor), ConsistencyLevel.ONE,
+                LocalCqlSession.DEFAULT_MAX_CONCURRENT_REQUESTS, LocalCqlSession.DEFAULT_BORROW_TIMEOUT, LocalCqlSession.DEFAULT_PREPARED_QUERY_CACHE_SIZE);
+    }
+
+    void stop() throws IOException, InterruptedException {
+        if (sessionExecutor != null) {
+            sessionExecutor.shutdownNow();
+        }
+        container.shutdown();
+        container.awaitTermination();
+        Files.walkFileTree(baseDir.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.config.Config;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * The management path of the subsystem: creating the cassandra config from the model of a cluster,
+ * parsing the subsystem xml and persisting the model. Uses the subsystem xml of the tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ManagementBenchmark {
+
+    private static final String CLUSTER_NAME = "My Cluster";
+
+    private String subsystemXml;
+    private XMLMapper mapper;
+    private XMLInputFactory inputFactory;
+    private XMLOutputFactory outputFactory;
+    private ModelNode subsystemModel;
+    private PathAddress clusterAddress;
+    private ModelNode clusterModel;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/test-subsystem.xml")) {
+            subsystemXml = new Scanner(in, "UTF-8").useDelimiter("\\A").next();
+        }
+        mapper = XMLMapper.Factory.create();
+        mapper.registerRootElement(new QName(CassandraExtension.NAMESPACE, "subsystem"), SubsystemParser.INSTANCE);
+        inputFactory = XMLInputFactory.newInstance();
+        outputFactory = XMLOutputFactory.newInstance();
+
+        subsystemModel = toModel(parse());
+        clusterAddress = PathAddress.pathAddress(CassandraExtension.SUBSYSTEM_PATH,
+                PathElement.pathElement(CassandraModel.CLUSTER, CLUSTER_NAME));
+        clusterModel = subsystemModel.get(CassandraModel.CLUSTER, CLUSTER_NAME);
+    }
+
+    /**
+     * The model the add operations would create, relative to the subsystem.
+     */
+    private static ModelNode toModel(List<ModelNode> operations) {
+        final ModelNode model = new ModelNode();
+        for (ModelNode operation : operations) {
+            ModelNode resource = model;
+            for (PathElement element : PathAddress.pathAddress(operation.get(OP_ADDR)).subAddress(1)) {
+                resource = resource.get(element.getKey(), element.getValue());
+            }
+            for (String attribute : operation.keys()) {
+                if (!OP.equals(attribute) && !OP_ADDR.equals(attribute)) {
+                    resource.get(attribute).set(operation.get(attribute));
+                }
+            }
+        }
+        return model;
+    }
+
+    @Benchmark
+    public Config createServiceConfig() throws Exception {
+        return ClusterAdd.createServiceConfig(ExpressionResolver.TEST_RESOLVER, clusterAddress, clusterModel);
+    }
+
+    @Benchmark
+    public List<ModelNode> parse() throws Exception {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        mapper.parseDocument(operations, inputFactory.createXMLStreamReader(new StringReader(subsystemXml)));
+        return operations;
+    }
+
+    @Benchmark
+    public String persist() throws Exception {
+        final StringWriter out = new StringWriter();
+        final XMLStreamWriter writer = outputFactory.createXMLStreamWriter(out);
+        // the parser writes to the stream writer of the mapper, not to the one of the context
+        mapper.deparseDocument(SubsystemParser.INSTANCE, new SubsystemMarshallingContext(subsystemModel, null), writer);
+        writer.close();
+        return out.toString();
+    }
+}
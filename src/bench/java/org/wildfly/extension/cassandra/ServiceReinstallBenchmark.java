@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency of the service cycle a {@link ClusterWriteAttributeHandler} triggers: the cassandra service is removed,
+ * then a new one created from the cluster model is installed and started.
+ * Measured at the MSC level, without the operation overhead of the controller.
+ * <p/>
+ * This is not the latency of a real restart of the node. Cassandra keeps its state in JVM wide statics
+ * ({@code DatabaseDescriptor}, {@code StorageService}, {@code Schema}) that are never torn down, so every start after
+ * the first one finds the schema loaded, the commit log replayed and the ring joined. The {@code startup-timings}
+ * of a cluster show the phases of a real start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-Dcassandra.boot_without_jna=true"})
+public class ServiceReinstallBenchmark {
+
+    private EmbeddedNode node;
+
+    @Setup
+    public void setUp() throws Exception {
+        node = new EmbeddedNode();
+        node.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        node.stop();
+    }
+
+    @Benchmark
+    public void reinstall() throws Exception {
+        node.remove();
+        node.install();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Read-only runtime resource exposing the usage of the key, row and counter caches.
+ */
+public class CacheMetricsDefinition extends SimpleResourceDefinition {
+
+    /**
+     * The caches that are exposed, along with their metric scope.
+     */
+    enum Cache {
+        KEY_CACHE(CassandraModel.KEY_CACHE, "KeyCache"),
+        ROW_CACHE(CassandraModel.ROW_CACHE, "RowCache"),
+        COUNTER_CACHE(CassandraModel.COUNTER_CACHE, "CounterCache");
+
+        private final String attributeName;
+        private final String scope;
+
+        Cache(String attributeName, String scope) {
+            this.attributeName = attributeName;
+            this.scope = scope;
+        }
+
+        String getAttributeName() {
+            return attributeName;
+        }
+
+        String metric(String name) {
+            return "type=Cache,scope=" + scope + ",name=" + name;
+        }
+
+        static Cache forAttribute(String attributeName) {
+            for (Cache cache : values()) {
+                if (cache.attributeName.equals(attributeName)) {
+                    return cache;
+                }
+            }
+            throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    static final SimpleAttributeDefinition HIT_RATE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.HIT_RATE, ModelType.DOUBLE, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition HITS = counter(CassandraModel.HITS);
+    static final SimpleAttributeDefinition REQUESTS = counter(CassandraModel.REQUESTS);
+    static final SimpleAttributeDefinition ENTRIES = counter(CassandraModel.ENTRIES);
+
+    static final SimpleAttributeDefinition SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.SIZE, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition CAPACITY =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CAPACITY, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final CacheMetricsDefinition INSTANCE = new CacheMetricsDefinition();
+
+    private CacheMetricsDefinition() {
+        super(CassandraExtension.CACHE_METRICS_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.RUNTIME_METRICS, CassandraModel.CACHES));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        for (Cache cache : Cache.values()) {
+            AttributeDefinition attr = ObjectTypeAttributeDefinition.Builder.of(cache.getAttributeName(),
+                    HIT_RATE, HITS, REQUESTS, ENTRIES, SIZE, CAPACITY)
+                    .setStorageRuntime()
+                    .build();
+            resourceRegistration.registerMetric(attr, CacheMetricsHandler.INSTANCE);
+        }
+    }
+
+    private static SimpleAttributeDefinition counter(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+}
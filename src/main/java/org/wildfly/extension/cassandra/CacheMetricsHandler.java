@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.cassandra.CacheMetricsDefinition.Cache;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+/**
+ * Reads the usage of a cache from the metric registry of the running node.
+ */
+class CacheMetricsHandler extends ClusterRuntimeHandler {
+
+    static final CacheMetricsHandler INSTANCE = new CacheMetricsHandler();
+
+    private CacheMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final Cache cache = Cache.forAttribute(operation.require(NAME).asString());
+        final ModelNode result = context.getResult();
+        result.get(CassandraModel.HIT_RATE).set(CassandraMetrics.read(cache.metric("HitRate"), CassandraMetrics.VALUE));
+        result.get(CassandraModel.HITS).set(CassandraMetrics.read(cache.metric("Hits"), CassandraMetrics.COUNT));
+        result.get(CassandraModel.REQUESTS).set(CassandraMetrics.read(cache.metric("Requests"), CassandraMetrics.COUNT));
+        result.get(CassandraModel.ENTRIES).set(CassandraMetrics.read(cache.metric("Entries"), CassandraMetrics.VALUE));
+        result.get(CassandraModel.SIZE).set(CassandraMetrics.read(cache.metric("Size"), CassandraMetrics.VALUE));
+        result.get(CassandraModel.CAPACITY).set(CassandraMetrics.read(cache.metric("Capacity"), CassandraMetrics.VALUE));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Sizing of the key, row and counter caches. Changes are applied to the running node.
+ */
+public class CachesDefinition extends PersistentResourceDefinition {
+
+    // no default: cassandra picks min(5% of the heap, 100MB)
+    static final SimpleAttributeDefinition KEY_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.KEY_CACHE_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    static final SimpleAttributeDefinition KEY_CACHE_SAVE_PERIOD =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.KEY_CACHE_SAVE_PERIOD, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(14400))
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    static final SimpleAttributeDefinition ROW_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.ROW_CACHE_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(0L))
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    static final SimpleAttributeDefinition ROW_CACHE_SAVE_PERIOD =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.ROW_CACHE_SAVE_PERIOD, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(0))
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    // no default: cassandra picks min(2.5% of the heap, 50MB)
+    static final SimpleAttributeDefinition COUNTER_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COUNTER_CACHE_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    static final SimpleAttributeDefinition COUNTER_CACHE_SAVE_PERIOD =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COUNTER_CACHE_SAVE_PERIOD, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(7200))
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {
+            KEY_CACHE_SIZE, KEY_CACHE_SAVE_PERIOD,
+            ROW_CACHE_SIZE, ROW_CACHE_SAVE_PERIOD,
+            COUNTER_CACHE_SIZE, COUNTER_CACHE_SAVE_PERIOD
+    };
+
+    static final CachesDefinition INSTANCE = new CachesDefinition();
+
+    private CachesDefinition() {
+        super(CassandraExtension.CACHES_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.CACHES),
+                new ClusterTuningAdd(ATTRIBUTES),
+                ClusterTuningRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        LiveWriteAttributeHandler handler = new LiveWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+}
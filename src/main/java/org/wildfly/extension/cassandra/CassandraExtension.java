@@ -47,6 +47,21 @@ public class CassandraExtension implements Extension {
 
     protected static final PathElement SUBSYSTEM_PATH = PathElement.pathElement(SUBSYSTEM, SUBSYSTEM_NAME);
     protected static PathElement CLUSTER_PATH = PathElement.pathElement(CassandraModel.CLUSTER);
+    protected static final PathElement THREAD_POOLS_PATH = PathElement.pathElement(CassandraModel.TUNING, CassandraModel.THREAD_POOLS);
+    protected static final PathElement CACHES_PATH = PathElement.pathElement(CassandraModel.TUNING, CassandraModel.CACHES);
+    protected static final PathElement COMMIT_LOG_PATH = PathElement.pathElement(CassandraModel.TUNING, CassandraModel.COMMIT_LOG);
+    protected static final PathElement STARTUP_PATH = PathElement.pathElement(CassandraModel.TUNING, CassandraModel.STARTUP);
+    protected static final PathElement NATIVE_TRANSPORT_PATH = PathElement.pathElement(CassandraModel.TUNING, CassandraModel.NATIVE_TRANSPORT);
+    protected static final PathElement PROMETHEUS_EXPORTER_PATH = PathElement.pathElement(CassandraModel.EXPORTER, CassandraModel.PROMETHEUS);
+    protected static final PathElement DATA_DIRECTORY_PATH = PathElement.pathElement(CassandraModel.DATA_DIRECTORY);
+    protected static final PathElement SESSION_PATH = PathElement.pathElement(CassandraModel.SESSION);
+    protected static final PathElement KEYSPACE_PATH = PathElement.pathElement(CassandraModel.KEYSPACE);
+    protected static final PathElement TABLE_PATH = PathElement.pathElement(CassandraModel.TABLE);
+    protected static final PathElement THREAD_POOL_METRICS_PATH = PathElement.pathElement(CassandraModel.RUNTIME_METRICS, CassandraModel.THREAD_POOLS);
+    protected static final PathElement CACHE_METRICS_PATH = PathElement.pathElement(CassandraModel.RUNTIME_METRICS, CassandraModel.CACHES);
+    protected static final PathElement COMMIT_LOG_METRICS_PATH = PathElement.pathElement(CassandraModel.RUNTIME_METRICS, CassandraModel.COMMIT_LOG);
+    protected static final PathElement NATIVE_TRANSPORT_METRICS_PATH = PathElement.pathElement(CassandraModel.RUNTIME_METRICS, CassandraModel.NATIVE_TRANSPORT);
+    protected static final PathElement COMPACTION_METRICS_PATH = PathElement.pathElement(CassandraModel.RUNTIME_METRICS, CassandraModel.COMPACTIONS);
 
     private static final String RESOURCE_NAME = CassandraExtension.class.getPackage().getName() + ".LocalDescriptions";
 
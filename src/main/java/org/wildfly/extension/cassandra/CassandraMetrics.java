@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.dmr.ModelNode;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reads the metric registry of the embedded node.
+ * <p/>
+ * The registry is accessed through its in-process JMX view on the platform MBean server.
+ * That's a plain method call (no remote connector involved) and keeps us independent of the metrics library
+ * cassandra happens to use internally.
+ */
+final class CassandraMetrics {
+
+    private static final String DOMAIN = "org.apache.cassandra.metrics";
+
+    /** The attribute of gauges */
+    static final String VALUE = "Value";
+
+    /** The attribute of counters */
+    static final String COUNT = "Count";
+
+    private CassandraMetrics() {
+    }
+
+    /**
+     * @param properties the key properties of the metric, i.e. {@code "type=ThreadPools,path=request,scope=ReadStage,name=ActiveTasks"}
+     */
+    static ObjectName metric(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":" + properties);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(properties, e);
+        }
+    }
+
+    /**
+     * Reads a metric attribute. Metrics that are not (yet) registered resolve to an undefined node.
+     */
+    static ModelNode read(ObjectName metric, String attribute) {
+        try {
+            return toModelNode(server().getAttribute(metric, attribute));
+        } catch (InstanceNotFoundException e) {
+            return new ModelNode();
+        } catch (JMException e) {
+            CassandraLogger.LOGGER.debugf(e, "Failed to read %s of %s", attribute, metric);
+            return new ModelNode();
+        }
+    }
+
+    /**
+     * Reads the buckets of an estimated histogram gauge, i.e. the partition sizes of a table.
+     *
+     * @return the bucket counts, or {@code null} if the metric isn't registered
+     */
+    static long[] readBuckets(ObjectName metric) {
+        try {
+            final Object value = server().getAttribute(metric, VALUE);
+            return value instanceof long[] ? (long[]) value : null;
+        } catch (InstanceNotFoundException e) {
+            return null;
+        } catch (JMException e) {
+            CassandraLogger.LOGGER.debugf(e, "Failed to read %s of %s", VALUE, metric);
+            return null;
+        }
+    }
+
+    static ModelNode read(String properties, String attribute) {
+        return read(metric(properties), attribute);
+    }
+
+    /**
+     * Reads the percentiles of a latency timer (in microseconds) into the given node.
+     */
+    static ModelNode readLatency(ObjectName timer, ModelNode target) {
+        target.get(CassandraModel.P50).set(read(timer, "50thPercentile"));
+        target.get(CassandraModel.P95).set(read(timer, "95thPercentile"));
+        target.get(CassandraModel.P99).set(read(timer, "99thPercentile"));
+        target.get(CassandraModel.P999).set(read(timer, "999thPercentile"));
+        target.get(CassandraModel.MEAN).set(read(timer, "Mean"));
+        target.get(CassandraModel.MAX).set(read(timer, "Max"));
+        target.get(CassandraModel.COUNT).set(read(timer, COUNT));
+        return target;
+    }
+
+    /**
+     * Sums an attribute over all metrics matching a pattern, i.e. over all tables.
+     */
+    static ModelNode sum(String pattern, String attribute) {
+        long sum = 0;
+        for (ObjectName name : query(pattern)) {
+            ModelNode value = read(name, attribute);
+            if (value.isDefined()) {
+                sum += value.asLong();
+            }
+        }
+        return new ModelNode(sum);
+    }
+
+    /**
+     * The names of all metrics matching a pattern, i.e. {@code "type=ColumnFamily,name=PendingCompactions,*"}
+     */
+    static Set<ObjectName> query(String pattern) {
+        return server().queryNames(metric(pattern), null);
+    }
+
+    /**
+     * The keyspaces of the running node. Derived from the registered keyspace metrics, which
+     * doesn't touch the cassandra schema classes when the node isn't running.
+     */
+    static Set<String> keyspaces() {
+        return keyProperties(metric("type=Keyspace,name=ReadLatency,*"), "keyspace");
+    }
+
+    /**
+     * The tables of a keyspace of the running node, derived from the registered table metrics.
+     */
+    static Set<String> tables(String keyspace) {
+        return keyProperties(metric("type=ColumnFamily,keyspace=" + keyspace + ",name=ReadLatency,*"), "scope");
+    }
+
+    /**
+     * The metrics of a table, i.e. {@code table("system", "local", "LiveSSTableCount")}
+     */
+    static ObjectName table(String keyspace, String table, String name) {
+        return metric("type=ColumnFamily,keyspace=" + keyspace + ",scope=" + table + ",name=" + name);
+    }
+
+    private static Set<String> keyProperties(ObjectName pattern, String key) {
+        Set<String> result = new TreeSet<String>();
+        for (ObjectName name : server().queryNames(pattern, null)) {
+            result.add(name.getKeyProperty(key));
+        }
+        return result;
+    }
+
+    private static ModelNode toModelNode(Object value) {
+        ModelNode node = new ModelNode();
+        if (value instanceof Integer) {
+            node.set((Integer) value);
+        } else if (value instanceof Long) {
+            node.set((Long) value);
+        } else if (value instanceof Number) {
+            node.set(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            node.set((Boolean) value);
+        } else if (value != null) {
+            node.set(value.toString());
+        }
+        return node;
+    }
+
+    static MBeanServer server() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+}
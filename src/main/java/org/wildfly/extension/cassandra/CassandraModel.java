@@ -48,4 +48,194 @@ public class CassandraModel {
     public static final String REQUEST_SCHEDULER = "request-scheduler";
     public static final String SERVER_ENCRYPTION = "server-encryption-enabled";
     public static final String CLIENT_ENCRYPTION = "client-encryption-enabled";
+    public static final String MEMTABLE_ALLOCATION_TYPE = "memtable-allocation-type";
+    public static final String MEMTABLE_HEAP_SPACE = "memtable-heap-space-in-mb";
+    public static final String MEMTABLE_OFFHEAP_SPACE = "memtable-offheap-space-in-mb";
+    public static final String MEMTABLE_CLEANUP_THRESHOLD = "memtable-cleanup-threshold";
+    public static final String MEMTABLE_ON_HEAP_SIZE = "memtable-on-heap-size";
+    public static final String MEMTABLE_OFF_HEAP_SIZE = "memtable-off-heap-size";
+
+    public static final String TUNING = "tuning";
+    public static final String THREAD_POOLS = "thread-pools";
+    public static final String CONCURRENT_READS = "concurrent-reads";
+    public static final String CONCURRENT_WRITES = "concurrent-writes";
+    public static final String CONCURRENT_COUNTER_WRITES = "concurrent-counter-writes";
+
+    public static final String RUNTIME_METRICS = "runtime-metrics";
+    public static final String READ = "read";
+    public static final String MUTATION = "mutation";
+    public static final String GOSSIP = "gossip";
+    public static final String FLUSH = "flush";
+    public static final String ACTIVE_TASKS = "active-tasks";
+    public static final String PENDING_TASKS = "pending-tasks";
+    public static final String COMPLETED_TASKS = "completed-tasks";
+    public static final String CURRENTLY_BLOCKED_TASKS = "currently-blocked-tasks";
+    public static final String TOTAL_BLOCKED_TASKS = "total-blocked-tasks";
+
+    public static final String KEYSPACE = "keyspace";
+    public static final String READ_LATENCY = "read-latency";
+    public static final String WRITE_LATENCY = "write-latency";
+    public static final String RANGE_LATENCY = "range-latency";
+    public static final String P50 = "p50";
+    public static final String P95 = "p95";
+    public static final String P99 = "p99";
+    public static final String P999 = "p999";
+    public static final String MEAN = "mean";
+    public static final String MAX = "max";
+    public static final String COUNT = "count";
+
+    public static final String CACHES = "caches";
+    public static final String KEY_CACHE_SIZE = "key-cache-size-in-mb";
+    public static final String KEY_CACHE_SAVE_PERIOD = "key-cache-save-period";
+    public static final String ROW_CACHE_SIZE = "row-cache-size-in-mb";
+    public static final String ROW_CACHE_SAVE_PERIOD = "row-cache-save-period";
+    public static final String COUNTER_CACHE_SIZE = "counter-cache-size-in-mb";
+    public static final String COUNTER_CACHE_SAVE_PERIOD = "counter-cache-save-period";
+    public static final String RESIZE_CACHES = "resize-caches";
+    public static final String KEY_CACHE = "key-cache";
+    public static final String ROW_CACHE = "row-cache";
+    public static final String COUNTER_CACHE = "counter-cache";
+    public static final String HIT_RATE = "hit-rate";
+    public static final String HITS = "hits";
+    public static final String REQUESTS = "requests";
+    public static final String ENTRIES = "entries";
+    public static final String SIZE = "size";
+    public static final String CAPACITY = "capacity";
+
+    public static final String COMMIT_LOG = "commit-log";
+    public static final String COMMIT_LOG_SYNC_BATCH_WINDOW = "commitlog-sync-batch-window-in-ms";
+    public static final String COMMIT_LOG_SEGMENT_SIZE = "commitlog-segment-size-in-mb";
+    public static final String COMMIT_LOG_TOTAL_SPACE = "commitlog-total-space-in-mb";
+    public static final String COMMIT_LOG_COMPRESSION = "commitlog-compression";
+    public static final String ACTIVE_SEGMENTS = "active-segments";
+    public static final String TOTAL_SIZE = "total-size";
+    public static final String SYNC_LATENCY = "sync-latency";
+
+    public static final String COMPACTION_THROUGHPUT = "compaction-throughput-mb-per-sec";
+    public static final String CONCURRENT_COMPACTORS = "concurrent-compactors";
+    public static final String COMPACTION_LARGE_PARTITION_WARNING_THRESHOLD = "compaction-large-partition-warning-threshold-mb";
+    public static final String SET_COMPACTION_THROUGHPUT = "set-compaction-throughput";
+    public static final String SET_CONCURRENT_COMPACTORS = "set-concurrent-compactors";
+    public static final String READ_REQUEST_TIMEOUT = "read-request-timeout-in-ms";
+    public static final String WRITE_REQUEST_TIMEOUT = "write-request-timeout-in-ms";
+    public static final String RANGE_REQUEST_TIMEOUT = "range-request-timeout-in-ms";
+    public static final String REQUEST_TIMEOUT = "request-timeout-in-ms";
+    public static final String TRACE_PROBABILITY = "trace-probability";
+    public static final String COMPACTIONS = "compactions";
+    public static final String ACTIVE_COMPACTIONS = "active-compactions";
+    public static final String PENDING_TASKS_BY_TABLE = "pending-tasks-by-table";
+    public static final String COMPACTION_ID = "compaction-id";
+    public static final String COMPACTION_TYPE = "compaction-type";
+    public static final String TABLE = "table";
+    public static final String PROGRESS = "progress";
+    public static final String UNIT = "unit";
+    public static final String STOP_COMPACTION = "stop-compaction";
+
+    public static final String DATA_DIRECTORY = "data-directory";
+    public static final String PATH = "path";
+    public static final String RELATIVE_TO = "relative-to";
+    public static final String BYTES_USED = "bytes-used";
+    public static final String FREE_SPACE = "free-space";
+    public static final String SSTABLE_COUNT = "sstable-count";
+
+    public static final String RUN_DISK_BENCHMARK = "run-disk-benchmark";
+    public static final String FILE_SIZE = "file-size-in-mb";
+    public static final String DIRECTORY = "directory";
+    public static final String DIRECTORY_TYPE = "directory-type";
+    public static final String FILE_SYSTEM = "file-system";
+    public static final String SEQUENTIAL_WRITE = "sequential-write-mb-per-sec";
+    public static final String RANDOM_READ = "random-read-mb-per-sec";
+    public static final String RANDOM_READS_PER_SECOND = "random-reads-per-sec";
+    public static final String PAGE_CACHE_EVICTED = "page-cache-evicted";
+
+    public static final String STARTUP_TIMINGS = "startup-timings";
+    public static final String DIRECTORY_SETUP = "directory-setup";
+    public static final String SCHEMA_LOAD = "schema-load";
+    public static final String COMMIT_LOG_REPLAY = "commit-log-replay";
+    public static final String RING_JOIN = "ring-join";
+    public static final String GOSSIP_SETTLE = "gossip-settle";
+    public static final String CLIENT_TRANSPORTS = "client-transports";
+    public static final String TOTAL = "total";
+
+    public static final String STATE = "state";
+
+    public static final String STARTUP = "startup";
+    public static final String SAVED_CACHES_LOADING = "saved-caches-loading";
+    public static final String EAGER = "eager";
+    public static final String LAZY = "lazy";
+    public static final String CACHE_PRELOAD_THREADS = "cache-preload-threads";
+    public static final String REPLAYED_MUTATIONS = "replayed-mutations";
+    public static final String REPLAY_RATE = "replayed-mutations-per-sec";
+
+    public static final String SESSION = "session";
+    public static final String JNDI_NAME = "jndi-name";
+    public static final String CONSISTENCY_LEVEL = "consistency-level";
+    public static final String MAX_CONCURRENT_REQUESTS = "max-concurrent-requests";
+    public static final String BORROW_TIMEOUT = "borrow-timeout";
+    public static final String ASYNC_THREADS = "async-threads";
+    public static final String PREPARED_QUERY_CACHE_SIZE = "prepared-query-cache-size";
+    public static final String IN_FLIGHT_REQUESTS = "in-flight-requests";
+    public static final String AVERAGE_BORROW_WAIT_TIME = "average-borrow-wait-time";
+    public static final String MAX_BORROW_WAIT_TIME = "max-borrow-wait-time";
+    public static final String PREPARED_QUERIES = "prepared-queries";
+
+    public static final String NATIVE_TRANSPORT = "native-transport";
+    public static final String NATIVE_TRANSPORT_MAX_THREADS = "native-transport-max-threads";
+    public static final String NATIVE_TRANSPORT_MAX_FRAME_SIZE = "native-transport-max-frame-size-in-mb";
+    public static final String NATIVE_TRANSPORT_MAX_CONCURRENT_CONNECTIONS = "native-transport-max-concurrent-connections";
+    public static final String NATIVE_TRANSPORT_MAX_CONCURRENT_CONNECTIONS_PER_IP = "native-transport-max-concurrent-connections-per-ip";
+    public static final String CONNECTED_CLIENTS = "connected-clients";
+    public static final String ACTIVE_REQUESTS = "active-requests";
+    public static final String PENDING_REQUESTS = "pending-requests";
+    public static final String BLOCKED_REQUESTS = "blocked-requests";
+    public static final String WORKER = "worker";
+    public static final String STORAGE_SOCKET_BINDING = "storage-socket-binding";
+    public static final String SSL_STORAGE_SOCKET_BINDING = "ssl-storage-socket-binding";
+    public static final String NATIVE_TRANSPORT_SOCKET_BINDING = "native-transport-socket-binding";
+    public static final String RPC_SOCKET_BINDING = "rpc-socket-binding";
+    public static final String PREFER_EPOLL = "prefer-epoll";
+
+    public static final String RUN_STRESS = "run-stress";
+    public static final String STRESS_DURATION = "duration-in-sec";
+    public static final String CONCURRENCY = "concurrency";
+    public static final String INSERT_WEIGHT = "insert-weight";
+    public static final String READ_WEIGHT = "read-weight";
+    public static final String RANGE_READ_WEIGHT = "range-read-weight";
+    public static final String PARTITIONS = "partitions";
+    public static final String VALUE_SIZE = "value-size-in-bytes";
+    public static final String INSERT = "insert";
+    public static final String RANGE_READ = "range-read";
+    public static final String OPERATIONS = "operations";
+    public static final String OPERATIONS_PER_SEC = "operations-per-sec";
+    public static final String LATENCY = "latency";
+    public static final String ELAPSED_TIME = "elapsed-time";
+    public static final String ERRORS = "errors";
+    public static final String LAST_ERROR = "last-error";
+    public static final String GC_TIME = "gc-time";
+    public static final String GC_COUNT = "gc-count";
+
+    public static final String EXPORTER = "exporter";
+    public static final String PROMETHEUS = "prometheus";
+    public static final String SOCKET_BINDING = "socket-binding";
+
+    public static final String PARTITION_SIZE = "partition-size";
+    public static final String MIN = "min";
+    public static final String BLOOM_FILTER_FALSE_RATIO = "bloom-filter-false-ratio";
+    public static final String TOMBSTONES_SCANNED = "tombstones-scanned";
+    public static final String MEMTABLE_LIVE_DATA_SIZE = "memtable-live-data-size";
+    public static final String ESTIMATED_KEYS = "estimated-keys";
+
+    public static final String SET_TABLE_OPTIONS = "set-table-options";
+    public static final String COMPACTION_STRATEGY = "compaction-strategy";
+    public static final String COMPRESSION_CHUNK_LENGTH = "compression-chunk-length-in-kb";
+    public static final String BLOOM_FILTER_FP_CHANCE = "bloom-filter-fp-chance";
+    public static final String CACHING_KEYS = "caching-keys";
+    public static final String CACHING_ROWS_PER_PARTITION = "caching-rows-per-partition";
+    public static final String GC_GRACE_SECONDS = "gc-grace-seconds";
+    public static final String SETTLE_TIME = "settle-time-in-sec";
+    public static final String STATEMENT = "statement";
+    public static final String BEFORE = "before";
+    public static final String AFTER = "after";
+    public static final String OPTIONS = "options";
+    public static final String PENDING_COMPACTIONS = "pending-compactions";
 }
@@ -19,8 +19,10 @@ package org.wildfly.extension.cassandra;
 
 import org.apache.cassandra.config.Config;
 import org.apache.cassandra.service.CassandraDaemon;
+import org.apache.cassandra.service.StorageService;
 import org.jboss.as.controller.services.path.AbsolutePathService;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.network.SocketBinding;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
@@ -28,6 +30,26 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.xnio.XnioWorker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * The cassandra runtime service.
@@ -42,15 +64,69 @@ public class CassandraService implements Service<CassandraService> {
     private static final String CASSANDRA_SAVED_CACHES_DIR = "cassandra/saved_caches";
     private static final String CASSANDRA_COMMIT_LOG_DIR = "cassandra/commitlog";
 
+    // read once by netty, when the event loop group class is initialized
+    private static final String NETTY_EVENT_LOOP_THREADS = "io.netty.eventLoopThreads";
+    private static final String NETTY_EVENT_LOOP_GROUP = "io.netty.channel.MultithreadEventLoopGroup";
+
+    // read once by the native transport, when its server class is initialized
+    private static final String NATIVE_EPOLL_ENABLED = "cassandra.native.epoll.enabled";
+    private static final String NATIVE_TRANSPORT_SERVER = "org.apache.cassandra.transport.Server";
+
     private final String clusterName;
     private final Config serviceConfig;
+    // the data-file-directories of the model, serviceConfig.data_file_directories also holds the resolved data-directory resources
+    private final String[] configuredDataFileDirectories;
+
+    private volatile double traceProbability;
+
+    // name -> {path, relative-to} of the data-directory resources
+    private final Map<String, String[]> dataDirectories = new LinkedHashMap<String, String[]>();
+    private final Map<String, File> resolvedDataDirectories = new ConcurrentHashMap<String, File>();
+
+    /**
+     * The readiness of the node
+     */
+    enum State {
+        STARTING, JOINING, NORMAL, FAILED, STOPPED;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    // the transports read their settings once per JVM, see configureTransports()
+    private static volatile boolean transportsConfigured;
+
+    private static final ExecutorService STARTER = Executors.newCachedThreadPool(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "cassandra-service-start");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // 0 if cassandra loads the saved caches itself during the startup
+    private volatile int cachePreloadThreads;
+    private volatile SavedCacheLoader savedCacheLoader;
+
+    private volatile State state = State.STOPPED;
+    private volatile StartupTimings startupTimings;
 
     private CassandraDaemon cassandraDaemon;
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
+    private final InjectedValue<XnioWorker> ioWorker = new InjectedValue<XnioWorker>();
+    private final InjectedValue<SocketBinding> storageBinding = new InjectedValue<SocketBinding>();
+    private final InjectedValue<SocketBinding> sslStorageBinding = new InjectedValue<SocketBinding>();
+    private final InjectedValue<SocketBinding> nativeTransportBinding = new InjectedValue<SocketBinding>();
+    private final InjectedValue<SocketBinding> rpcBinding = new InjectedValue<SocketBinding>();
+    private volatile boolean preferEpoll = true;
 
     public CassandraService(String clusterName, Config serviceConfig) {
         this.clusterName = clusterName;
         this.serviceConfig = serviceConfig;
+        this.configuredDataFileDirectories = serviceConfig.data_file_directories;
     }
 
     @Override
@@ -59,48 +135,360 @@ public class CassandraService implements Service<CassandraService> {
     }
 
     @Override
-    public void start(StartContext context) throws StartException {
+    public void start(final StartContext context) throws StartException {
 
-        try {
-            CassandraLogger.LOGGER.infof("Starting embedded cassandra service '%s'", clusterName);
+        // cassandra keeps its state in JVM wide singletons (DatabaseDescriptor, StorageService, ...) that are never torn down,
+        // so only one cluster can ever run per server. Fail instead of starting on the state of another cluster.
+        if (!DMRConfigLoader.activate(clusterName, serviceConfig)) {
+            throw new StartException(String.format("Cannot start cassandra cluster '%s', cassandra has been started by cluster '%s' in this server. " +
+                    "Only one cluster can run per server, restart the server to switch clusters", clusterName, DMRConfigLoader.getActiveCluster()));
+        }
+
+        final StartupTimings timings = new StartupTimings();
+        startupTimings = timings;
+        state = State.STARTING;
+
+        // the bootstrap takes seconds to minutes, don't block the MSC threads (and everything not depending on us) meanwhile
+        context.asynchronous();
+        STARTER.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    doStart(timings);
+                } catch (Throwable e) {
+                    state = State.FAILED;
+                    DMRConfigLoader.release(clusterName);
+                    context.failed(new StartException(e));
+                    return;
+                }
+                state = State.NORMAL;
+                context.complete();
+
+                // the node is up, a failed preload only leaves the caches cold
+                final SavedCacheLoader loader = savedCacheLoader;
+                if (loader != null) {
+                    try {
+                        loader.run();
+                    } catch (Throwable e) {
+                        CassandraLogger.LOGGER.warnf(e, "Failed to load the saved caches of cluster '%s'", clusterName);
+                    }
+                }
+            }
+        });
+    }
+
+    private void doStart(final StartupTimings timings) throws Exception {
+        timings.begin(StartupTimings.Phase.DIRECTORY_SETUP);
+        CassandraLogger.LOGGER.infof("Starting embedded cassandra service '%s'", clusterName);
+
+        // resolve the path location
+        // includes the _clusterName_ suffix to avid conflicts when different configurations are started on the same base system
+        List<String> dataFileDirectories = new ArrayList<String>();
+        if(null!=configuredDataFileDirectories)
+            dataFileDirectories.addAll(Arrays.asList(configuredDataFileDirectories));
+
+        resolvedDataDirectories.clear();
+        for (Map.Entry<String, String[]> directory : dataDirectories.entrySet()) {
+            String relativeTo = directory.getValue()[1] != null ? directory.getValue()[1] : ServerEnvironment.SERVER_DATA_DIR;
+            String resolved = resolve(pathManager.getValue(), directory.getValue()[0], relativeTo);
+            resolvedDataDirectories.put(directory.getKey(), new File(resolved));
+            dataFileDirectories.add(resolved);
+        }
+
+        if(dataFileDirectories.isEmpty())
+            dataFileDirectories.add(resolve(pathManager.getValue(), CASSANDRA_DATA_FILE_DIR, ServerEnvironment.SERVER_DATA_DIR)+"/"+clusterName);
+
+        serviceConfig.data_file_directories = dataFileDirectories.toArray(new String[dataFileDirectories.size()]);
 
-            // resolve the path location
-            // includes the _clusterName_ suffix to avid conflicts when different configurations are started on the same base system
-            if(null==serviceConfig.data_file_directories)
-                serviceConfig.data_file_directories = new String[]{resolve(pathManager.getValue(), CASSANDRA_DATA_FILE_DIR, ServerEnvironment.SERVER_DATA_DIR)+"/"+clusterName};
+        if(null==serviceConfig.saved_caches_directory)
+            serviceConfig.saved_caches_directory = resolve(pathManager.getValue(), CASSANDRA_SAVED_CACHES_DIR, ServerEnvironment.SERVER_DATA_DIR)+"/"+clusterName;
 
-            if(null==serviceConfig.saved_caches_directory)
-                serviceConfig.saved_caches_directory = resolve(pathManager.getValue(), CASSANDRA_SAVED_CACHES_DIR, ServerEnvironment.SERVER_DATA_DIR)+"/"+clusterName;
+        if(null==serviceConfig.commitlog_directory)
+            serviceConfig.commitlog_directory = resolve(pathManager.getValue(), CASSANDRA_COMMIT_LOG_DIR, ServerEnvironment.SERVER_DATA_DIR)+"/"+clusterName;
 
-            if(null==serviceConfig.commitlog_directory)
-                serviceConfig.commitlog_directory = resolve(pathManager.getValue(), CASSANDRA_COMMIT_LOG_DIR, ServerEnvironment.SERVER_DATA_DIR)+"/"+clusterName;
+        checkDirectoryLayout();
+        applySocketBindings();
 
-            // static injection needed due to the way C* initialises it's ConfigLoader
-            DMRConfigLoader.CASSANDRA_CONFIG = serviceConfig;
+        final String savedCachesDirectory = serviceConfig.saved_caches_directory;
+        File startupCachesDirectory = null;
+        savedCacheLoader = null;
+        if (cachePreloadThreads > 0) {
+            // start on an empty directory, the saved caches are loaded once the node is up
+            startupCachesDirectory = new File(savedCachesDirectory + ".startup");
+            serviceConfig.saved_caches_directory = startupCachesDirectory.getPath();
+        }
+
+        // static injection needed due to the way C* initialises it's ConfigLoader
+        System.setProperty("cassandra.config.loader", DMRConfigLoader.class.getName());
 
-            System.setProperty("cassandra.config.loader", DMRConfigLoader.class.getName());
 
-            cassandraDaemon = new CassandraDaemon(true);
+        timings.begin(StartupTimings.Phase.SCHEMA_LOAD);
+        timings.attach();
+        try {
+            cassandraDaemon = new CassandraDaemon(true) {
+                @Override
+                public void start() {
+                    // activate() runs setup() up to the settled gossip, then starts the client transports
+                    timings.begin(StartupTimings.Phase.CLIENT_TRANSPORTS);
+                    configureTransports();
+                    super.start();
+                }
+            };
             cassandraDaemon.activate();
+        } finally {
+            timings.finish();
+            if (startupCachesDirectory != null) {
+                // read on every access by cassandra
+                serviceConfig.saved_caches_directory = savedCachesDirectory;
+                deleteRecursively(startupCachesDirectory);
+            }
+        }
+        CassandraLogger.LOGGER.infof("Started embedded cassandra service '%s' in %s ms (%s)",
+                clusterName, timings.toModelNode().get(CassandraModel.TOTAL).asLong(), timings);
 
-        } catch (Throwable e) {
-            context.failed(new StartException(e));
+        if (startupCachesDirectory != null) {
+            savedCacheLoader = new SavedCacheLoader(clusterName, cachePreloadThreads);
         }
+
+        if (traceProbability > 0)
+            StorageService.instance.setTraceProbability(traceProbability);
     }
 
     @Override
     public void stop(StopContext context) {
+        if (savedCacheLoader != null) {
+            savedCacheLoader.cancel();
+            savedCacheLoader = null;
+        }
         if(cassandraDaemon!=null)
         {
             CassandraLogger.LOGGER.infof("Stopping cassandra service '%s'.", clusterName);
             cassandraDaemon.deactivate();
+            cassandraDaemon = null;
+        }
+        // keeps the ownership of cassandra, see DMRConfigLoader.activate()
+        state = State.STOPPED;
+    }
+
+    /**
+     * Socket bindings take precedence over the addresses and ports of the cluster resource.
+     * They include the port offset of the server.
+     */
+    private void applySocketBindings() throws StartException {
+        final SocketBinding storage = storageBinding.getOptionalValue();
+        if (storage != null) {
+            checkNotWildcard(storage);
+            serviceConfig.listen_address = storage.getAddress().getHostAddress();
+            serviceConfig.storage_port = storage.getAbsolutePort();
+        }
+        final SocketBinding sslStorage = sslStorageBinding.getOptionalValue();
+        if (sslStorage != null) {
+            checkNotWildcard(sslStorage);
+            // internode connections, encrypted or not, use the listen address
+            checkAddress(sslStorage, serviceConfig.listen_address, CassandraModel.LISTEN_ADDRESS);
+            serviceConfig.ssl_storage_port = sslStorage.getAbsolutePort();
+        }
+        final SocketBinding nativeTransport = nativeTransportBinding.getOptionalValue();
+        if (nativeTransport != null) {
+            checkNotWildcard(nativeTransport);
+            serviceConfig.rpc_address = nativeTransport.getAddress().getHostAddress();
+            serviceConfig.native_transport_port = nativeTransport.getAbsolutePort();
+        }
+        final SocketBinding rpc = rpcBinding.getOptionalValue();
+        if (rpc != null) {
+            checkNotWildcard(rpc);
+            // the native transport and thrift share the rpc address
+            if (nativeTransport != null) {
+                checkAddress(rpc, serviceConfig.rpc_address, CassandraModel.NATIVE_TRANSPORT_SOCKET_BINDING);
+            }
+            serviceConfig.rpc_address = rpc.getAddress().getHostAddress();
+            serviceConfig.rpc_port = rpc.getAbsolutePort();
+        }
+    }
+
+    /**
+     * Cassandra announces the addresses to the other nodes and to the clients, a wildcard isn't an address to connect to.
+     */
+    private void checkNotWildcard(SocketBinding binding) throws StartException {
+        if (binding.getAddress().isAnyLocalAddress()) {
+            throw new StartException(String.format("Socket binding '%s' of cluster '%s' is bound to the wildcard address %s. " +
+                    "Cassandra announces the address to the other nodes and to the clients, bind it to the interface of the node",
+                    binding.getName(), clusterName, binding.getAddress().getHostAddress()));
+        }
+    }
+
+    private static void checkAddress(SocketBinding binding, String expected, String source) throws StartException {
+        final String address = binding.getAddress().getHostAddress();
+        if (expected != null && !expected.equals(address)) {
+            throw new StartException(String.format("Socket binding '%s' is bound to %s, but the address of %s is %s",
+                    binding.getName(), address, source, expected));
+        }
+    }
+
+    /**
+     * Commit log appends are sequential and latency sensitive, they suffer from the random I/O of reads and compaction
+     * when sharing a device with the data directories.
+     */
+    private void checkDirectoryLayout() {
+        try {
+            FileStore commitLogStore = Disks.fileStore(serviceConfig.commitlog_directory);
+            for (String dataFileDirectory : serviceConfig.data_file_directories) {
+                if (commitLogStore.equals(Disks.fileStore(dataFileDirectory))) {
+                    CassandraLogger.LOGGER.warnf("The commit log directory %s and the data directory %s of cluster '%s' share the file system %s. " +
+                            "Put the commit log on a separate disk to avoid write latency spikes.",
+                            serviceConfig.commitlog_directory, dataFileDirectory, clusterName, commitLogStore.name());
+                }
+            }
+        } catch (IOException e) {
+            CassandraLogger.LOGGER.debugf(e, "Failed to check the directory layout of cluster '%s'", clusterName);
+        }
+    }
+
+    State getState() {
+        State current = state;
+        if (current == State.STARTING && startupTimings.hasReached(StartupTimings.Phase.RING_JOIN)) {
+            return State.JOINING;
+        }
+        return current;
+    }
+
+    /**
+     * @return the phase timings of the last start, or {@code null} if the service hasn't been started
+     */
+    StartupTimings getStartupTimings() {
+        return startupTimings;
+    }
+
+    /**
+     * Applies the settings the client transports read once, when they are first started in the server.
+     */
+    private void configureTransports() {
+        if (transportsConfigured) {
+            CassandraLogger.LOGGER.debugf("The transport settings of cluster '%s' only apply on the first start in the server", clusterName);
+            return;
+        }
+        transportsConfigured = true;
+
+        // the native transport creates its own netty event loops, size them like the IO threads of the other subsystems
+        final XnioWorker worker = ioWorker.getOptionalValue();
+        if (worker != null) {
+            CassandraLogger.LOGGER.infof("Sizing the native transport event loop from IO worker '%s': %s threads", worker.getName(), worker.getIoThreadCount());
+            initializeWith(NETTY_EVENT_LOOP_GROUP, NETTY_EVENT_LOOP_THREADS, String.valueOf(worker.getIoThreadCount()));
         }
+        initializeWith(NATIVE_TRANSPORT_SERVER, NATIVE_EPOLL_ENABLED, String.valueOf(preferEpoll));
+    }
+
+    /**
+     * Initializes a class of cassandra's module with a system property set, for settings read once in a static initializer.
+     * The property is JVM wide, it is only set while the class initializes so it doesn't leak to other users.
+     */
+    private static void initializeWith(String className, String property, String value) {
+        final String previous = System.setProperty(property, value);
+        try {
+            Class.forName(className, true, CassandraDaemon.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            CassandraLogger.LOGGER.warnf("Failed to apply %s=%s, %s isn't available", property, value, className);
+        } finally {
+            if (previous != null)
+                System.setProperty(property, previous);
+            else
+                System.clearProperty(property);
+        }
+    }
+
+    /**
+     * Cassandra may have written into the directory meanwhile, i.e. when creating its directories.
+     */
+    private static void deleteRecursively(File directory) {
+        if (!directory.exists()) {
+            return;
+        }
+        try {
+            Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    if (e != null) {
+                        throw e;
+                    }
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            CassandraLogger.LOGGER.warnf(e, "Failed to delete %s", directory);
+        }
+    }
+
+    /**
+     * The config the node has been started with, including the resolved directories
+     */
+    Config getConfig() {
+        return serviceConfig;
+    }
+
+    void addDataDirectory(String name, String path, String relativeTo) {
+        dataDirectories.put(name, new String[]{path, relativeTo});
+    }
+
+    /**
+     * @return the resolved location of a data-directory resource, or {@code null} if the service hasn't been started
+     */
+    File getDataDirectory(String name) {
+        return resolvedDataDirectories.get(name);
+    }
+
+    /**
+     * Loads the saved caches after the node is up, instead of during the startup.
+     */
+    void setLazyCacheLoading(int preloadThreads) {
+        this.cachePreloadThreads = preloadThreads;
+    }
+
+    void setTraceProbability(double traceProbability) {
+        this.traceProbability = traceProbability;
+    }
+
+    /**
+     * Whether the native transport uses the epoll transport on Linux. Netty falls back to NIO where it isn't available.
+     */
+    void setPreferEpoll(boolean preferEpoll) {
+        this.preferEpoll = preferEpoll;
+    }
+
+    public String getClusterName() {
+        return clusterName;
     }
 
     public Injector<PathManager> getPathManagerInjector(){
         return pathManager;
     }
 
+    public Injector<XnioWorker> getIoWorkerInjector() {
+        return ioWorker;
+    }
+
+    public Injector<SocketBinding> getStorageBindingInjector() {
+        return storageBinding;
+    }
+
+    public Injector<SocketBinding> getSslStorageBindingInjector() {
+        return sslStorageBinding;
+    }
+
+    public Injector<SocketBinding> getNativeTransportBindingInjector() {
+        return nativeTransportBinding;
+    }
+
+    public Injector<SocketBinding> getRpcBindingInjector() {
+        return rpcBinding;
+    }
+
     private String resolve(PathManager pathManager, String path, String relativeToPath) {
         // discard the relativeToPath if the path is absolute and must not be resolved according
         // to the default relativeToPath value
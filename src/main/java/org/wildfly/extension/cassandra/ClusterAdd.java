@@ -18,6 +18,7 @@
 package org.wildfly.extension.cassandra;
 
 import org.apache.cassandra.config.Config;
+import org.apache.cassandra.config.ParameterizedClass;
 import org.apache.cassandra.config.SeedProviderDef;
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -26,14 +27,22 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.controller.registry.PlaceholderResource;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.services.path.PathManagerService;
+import org.jboss.as.network.SocketBinding;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
+import org.wildfly.extension.io.IOServices;
+import org.xnio.XnioWorker;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -50,6 +59,24 @@ class ClusterAdd extends AbstractAddStepHandler {
     public final static ClusterAdd INSTANCE = new ClusterAdd();
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("cassandra");
 
+    /**
+     * The name of the service of a cluster, {@code jboss.cassandra.<cluster-name>}
+     */
+    static ServiceName serviceName(String clusterName) {
+        return SERVICE_NAME.append(clusterName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Resource createResource(OperationContext context) {
+        // custom resource to expose the keyspaces of the running node
+        ClusterResource resource = new ClusterResource(Resource.Factory.create());
+        context.addResource(PathAddress.EMPTY_ADDRESS, resource);
+        return resource;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -60,6 +87,31 @@ class ClusterAdd extends AbstractAddStepHandler {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void populateModel(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+        super.populateModel(context, operation, resource);
+        CommitLogValidationHandler.addValidationStep(context, PathAddress.pathAddress(operation.get(OP_ADDR)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void populateModel(ModelNode operation, Resource resource) throws OperationFailedException {
+        super.populateModel(operation, resource);
+        ((ClusterResource) resource).setClusterName(PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue());
+
+        // placeholders for the runtime resources, their attributes are read from the running node
+        resource.registerChild(CassandraExtension.THREAD_POOL_METRICS_PATH, PlaceholderResource.INSTANCE);
+        resource.registerChild(CassandraExtension.CACHE_METRICS_PATH, PlaceholderResource.INSTANCE);
+        resource.registerChild(CassandraExtension.COMMIT_LOG_METRICS_PATH, PlaceholderResource.INSTANCE);
+        resource.registerChild(CassandraExtension.COMPACTION_METRICS_PATH, PlaceholderResource.INSTANCE);
+        resource.registerChild(CassandraExtension.NATIVE_TRANSPORT_METRICS_PATH, PlaceholderResource.INSTANCE);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -69,6 +121,8 @@ class ClusterAdd extends AbstractAddStepHandler {
         ModelNode fullTree = Resource.Tools.readModel(context.readResource(PathAddress.EMPTY_ADDRESS));
 
         installRuntimeServices(context, address, fullTree, verificationHandler, controllers);
+        // not part of the runtime services: the session is kept installed while the cluster service restarts
+        CqlSessionService.install(context, address.getLastElement().getValue(), verificationHandler, controllers);
     }
 
     static void installRuntimeServices(OperationContext context, PathAddress address, ModelNode fullModel, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> controllers) throws OperationFailedException {
@@ -76,17 +130,51 @@ class ClusterAdd extends AbstractAddStepHandler {
 
         final Config serviceConfig = createServiceConfig(context, address, fullModel);
         CassandraService service = new CassandraService(clusterName, serviceConfig);
+        if (fullModel.hasDefined(CassandraModel.DATA_DIRECTORY)) {
+            for (Property directory : fullModel.get(CassandraModel.DATA_DIRECTORY).asPropertyList()) {
+                final ModelNode relativeTo = DataDirectoryDefinition.RELATIVE_TO.resolveModelAttribute(context, directory.getValue());
+                service.addDataDirectory(directory.getName(),
+                        DataDirectoryDefinition.PATH.resolveModelAttribute(context, directory.getValue()).asString(),
+                        relativeTo.isDefined() ? relativeTo.asString() : null);
+            }
+        }
+        final ModelNode startup = tuning(fullModel, CassandraModel.STARTUP);
+        if (CassandraModel.LAZY.equals(StartupDefinition.SAVED_CACHES_LOADING.resolveModelAttribute(context, startup).asString())) {
+            service.setLazyCacheLoading(StartupDefinition.CACHE_PRELOAD_THREADS.resolveModelAttribute(context, startup).asInt());
+        }
+        service.setPreferEpoll(ClusterDefinition.PREFER_EPOLL.resolveModelAttribute(context, fullModel).asBoolean());
+        // not part of the cassandra config, applied once the node is up
+        service.setTraceProbability(ClusterDefinition.TRACE_PROBABILITY.resolveModelAttribute(context, fullModel).asDouble());
 
-        ServiceController<CassandraService> controller = context.getServiceTarget()
-                .addService(SERVICE_NAME, service)
-                .addListener(verificationHandler)
+        ServiceBuilder<CassandraService> builder = context.getServiceTarget()
+                .addService(serviceName(clusterName), service)
                 .setInitialMode(ServiceController.Mode.ACTIVE)
-                .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManagerInjector())
-                .install();
+                .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManagerInjector());
+        addSocketBinding(context, fullModel, builder, ClusterDefinition.STORAGE_SOCKET_BINDING, service.getStorageBindingInjector());
+        addSocketBinding(context, fullModel, builder, ClusterDefinition.SSL_STORAGE_SOCKET_BINDING, service.getSslStorageBindingInjector());
+        addSocketBinding(context, fullModel, builder, ClusterDefinition.NATIVE_TRANSPORT_SOCKET_BINDING, service.getNativeTransportBindingInjector());
+        addSocketBinding(context, fullModel, builder, ClusterDefinition.RPC_SOCKET_BINDING, service.getRpcBindingInjector());
+        final ModelNode worker = ClusterDefinition.WORKER.resolveModelAttribute(context, fullModel);
+        if (worker.isDefined()) {
+            builder.addDependency(IOServices.WORKER.append(worker.asString()), XnioWorker.class, service.getIoWorkerInjector());
+        }
+        if (!context.isBooting()) {
+            // the node starts asynchronously, the boot doesn't wait for it. Progress and failures show in the state attribute.
+            builder.addListener(verificationHandler);
+        }
+        ServiceController<CassandraService> controller = builder.install();
         controllers.add(controller);
 
     }
 
+    private static void addSocketBinding(OperationContext context, ModelNode fullModel, ServiceBuilder<CassandraService> builder,
+                                         AttributeDefinition attribute, Injector<SocketBinding> injector) throws OperationFailedException {
+        final ModelNode binding = attribute.resolveModelAttribute(context, fullModel);
+        if (binding.isDefined()) {
+            builder.addDependency(SocketBinding.JBOSS_BINDING_NAME.append(binding.asString()), SocketBinding.class, injector);
+        }
+    }
+
     private static Config createServiceConfig(final OperationContext context, PathAddress address, ModelNode fullModel) throws OperationFailedException {
 
         final ExpressionResolver expressionResolver = new ExpressionResolver() {
@@ -95,22 +183,30 @@ class ClusterAdd extends AbstractAddStepHandler {
                 return context.resolveExpressions(node);
             }
         };
+        return createServiceConfig(expressionResolver, address, fullModel);
+    }
+
+    /**
+     * Creates the cassandra config from the model of a cluster and its children. Doesn't depend on a running
+     * controller, which lets the benchmarks measure it.
+     */
+    static Config createServiceConfig(final ExpressionResolver resolver, PathAddress address, ModelNode fullModel) throws OperationFailedException {
 
         // create the actual cassandra config singleton
         final Config cassandraConfig = new Config();
         cassandraConfig.cluster_name = address.getLastElement().getValue();
-        cassandraConfig.num_tokens= ClusterDefinition.NUM_TOKENS.resolveModelAttribute(context, fullModel).asInt();
-        cassandraConfig.hinted_handoff_enabled = ClusterDefinition.HINTED_HANDOFF_ENABLED.resolveModelAttribute(context, fullModel).asString();
+        cassandraConfig.num_tokens= ClusterDefinition.NUM_TOKENS.resolveModelAttribute(resolver, fullModel).asInt();
+        cassandraConfig.hinted_handoff_enabled = ClusterDefinition.HINTED_HANDOFF_ENABLED.resolveModelAttribute(resolver, fullModel).asString();
 
-        cassandraConfig.authenticator = ClusterDefinition.AUTHENTICATOR.resolveModelAttribute(context, fullModel).asString();
-        cassandraConfig.authorizer= ClusterDefinition.AUTHORIZER.resolveModelAttribute(context, fullModel).asString();
-        cassandraConfig.partitioner= ClusterDefinition.PARTIONER.resolveModelAttribute(context, fullModel).asString();
+        cassandraConfig.authenticator = ClusterDefinition.AUTHENTICATOR.resolveModelAttribute(resolver, fullModel).asString();
+        cassandraConfig.authorizer= ClusterDefinition.AUTHORIZER.resolveModelAttribute(resolver, fullModel).asString();
+        cassandraConfig.partitioner= ClusterDefinition.PARTIONER.resolveModelAttribute(resolver, fullModel).asString();
 
         // The cassandra config is a real brainfuck
         LinkedHashMap providerConfig = new LinkedHashMap();
-        providerConfig.put("class_name", ClusterDefinition.SEED_PROVIDER.resolveModelAttribute(context, fullModel).asString());
+        providerConfig.put("class_name", ClusterDefinition.SEED_PROVIDER.resolveModelAttribute(resolver, fullModel).asString());
         HashMap<String, String> params = new HashMap<String, String>();
-        params.put("seeds", ClusterDefinition.SEEDS.resolveModelAttribute(expressionResolver, fullModel).asString());
+        params.put("seeds", ClusterDefinition.SEEDS.resolveModelAttribute(resolver, fullModel).asString());
         ArrayList wrapper = new ArrayList();
         wrapper.add(params);
         providerConfig.put("parameters", wrapper);
@@ -118,31 +214,102 @@ class ClusterAdd extends AbstractAddStepHandler {
         SeedProviderDef providerDef = new SeedProviderDef(providerConfig);
         cassandraConfig.seed_provider = providerDef;
 
-        cassandraConfig.listen_address = ClusterDefinition.LISTEN_ADDRESS.resolveModelAttribute(expressionResolver, fullModel).asString();
-        cassandraConfig.broadcast_address = ClusterDefinition.BROADCAST_ADDRESS.resolveModelAttribute(expressionResolver, fullModel).asString();
+        // otherwise taken from the storage-socket-binding when the service starts
+        if (fullModel.hasDefined(CassandraModel.LISTEN_ADDRESS))
+            cassandraConfig.listen_address = ClusterDefinition.LISTEN_ADDRESS.resolveModelAttribute(resolver, fullModel).asString();
+        cassandraConfig.broadcast_address = ClusterDefinition.BROADCAST_ADDRESS.resolveModelAttribute(resolver, fullModel).asString();
+
+        cassandraConfig.start_native_transport= ClusterDefinition.START_NATIVE_TRANSPORT.resolveModelAttribute(resolver, fullModel).asBoolean();
+        cassandraConfig.start_rpc = ClusterDefinition.START_RPC.resolveModelAttribute(resolver, fullModel).asBoolean();
 
-        cassandraConfig.start_native_transport= ClusterDefinition.START_NATIVE_TRANSPORT.resolveModelAttribute(context, fullModel).asBoolean();
-        cassandraConfig.start_rpc = ClusterDefinition.START_RPC.resolveModelAttribute(context, fullModel).asBoolean();
+        cassandraConfig.native_transport_port= ClusterDefinition.NATIVE_TRANSPORT_PORT.resolveModelAttribute(resolver, fullModel).asInt();
 
-        cassandraConfig.native_transport_port= ClusterDefinition.NATIVE_TRANSPORT_PORT.resolveModelAttribute(context, fullModel).asInt();
-        cassandraConfig.rpc_port= ClusterDefinition.RPC_PORT.resolveModelAttribute(context, fullModel).asInt();
+        final ModelNode nativeTransport = tuning(fullModel, CassandraModel.NATIVE_TRANSPORT);
+        cassandraConfig.native_transport_max_threads = NativeTransportDefinition.MAX_THREADS.resolveModelAttribute(resolver, nativeTransport).asInt();
+        cassandraConfig.native_transport_max_frame_size_in_mb = NativeTransportDefinition.MAX_FRAME_SIZE.resolveModelAttribute(resolver, nativeTransport).asInt();
+        final ModelNode maxConnections = NativeTransportDefinition.MAX_CONCURRENT_CONNECTIONS.resolveModelAttribute(resolver, nativeTransport);
+        if (maxConnections.isDefined())
+            cassandraConfig.native_transport_max_concurrent_connections = maxConnections.asLong();
+        final ModelNode maxConnectionsPerIp = NativeTransportDefinition.MAX_CONCURRENT_CONNECTIONS_PER_IP.resolveModelAttribute(resolver, nativeTransport);
+        if (maxConnectionsPerIp.isDefined())
+            cassandraConfig.native_transport_max_concurrent_connections_per_ip = maxConnectionsPerIp.asLong();
+        cassandraConfig.rpc_port= ClusterDefinition.RPC_PORT.resolveModelAttribute(resolver, fullModel).asInt();
 
-        cassandraConfig.internode_authenticator= ClusterDefinition.INTERNODE_AUTHENTICATOR.resolveModelAttribute(context, fullModel).asString();
+        cassandraConfig.internode_authenticator= ClusterDefinition.INTERNODE_AUTHENTICATOR.resolveModelAttribute(resolver, fullModel).asString();
 
         if(fullModel.hasDefined(CassandraModel.DATA_FILE_DIR))
-            cassandraConfig.data_file_directories= new String[]{ClusterDefinition.DATA_FILE_DIR.resolveModelAttribute(context, fullModel).asString()};
+            cassandraConfig.data_file_directories= new String[]{ClusterDefinition.DATA_FILE_DIR.resolveModelAttribute(resolver, fullModel).asString()};
 
         if(fullModel.hasDefined(CassandraModel.SAVED_CACHES_DIR))
-            cassandraConfig.saved_caches_directory= ClusterDefinition.SAVED_CACHES_DIR.resolveModelAttribute(context, fullModel).asString();
+            cassandraConfig.saved_caches_directory= ClusterDefinition.SAVED_CACHES_DIR.resolveModelAttribute(resolver, fullModel).asString();
 
         if(fullModel.hasDefined(CassandraModel.COMMIT_LOG_DIR))
-            cassandraConfig.commitlog_directory= ClusterDefinition.COMMIT_LOG_DIR.resolveModelAttribute(context, fullModel).asString();
-
-        cassandraConfig.commitlog_sync= Config.CommitLogSync.valueOf(ClusterDefinition.COMMIT_LOG_SYNC.resolveModelAttribute(context, fullModel).asString());
-        cassandraConfig.commitlog_sync_period_in_ms = ClusterDefinition.COMMIT_LOG_SYNC_PERIOD.resolveModelAttribute(context, fullModel).asInt();
-
-        cassandraConfig.endpoint_snitch= ClusterDefinition.ENDPOINT_SNITCH.resolveModelAttribute(context, fullModel).asString();
-        cassandraConfig.request_scheduler= ClusterDefinition.REQUEST_SCHEDULER.resolveModelAttribute(context, fullModel).asString();
+            cassandraConfig.commitlog_directory= ClusterDefinition.COMMIT_LOG_DIR.resolveModelAttribute(resolver, fullModel).asString();
+
+        cassandraConfig.commitlog_sync= Config.CommitLogSync.valueOf(ClusterDefinition.COMMIT_LOG_SYNC.resolveModelAttribute(resolver, fullModel).asString());
+        cassandraConfig.commitlog_sync_period_in_ms = ClusterDefinition.COMMIT_LOG_SYNC_PERIOD.resolveModelAttribute(resolver, fullModel).asInt();
+
+        final ModelNode commitLog = tuning(fullModel, CassandraModel.COMMIT_LOG);
+        final ModelNode batchWindow = CommitLogDefinition.COMMIT_LOG_SYNC_BATCH_WINDOW.resolveModelAttribute(resolver, commitLog);
+        if (batchWindow.isDefined())
+            cassandraConfig.commitlog_sync_batch_window_in_ms = batchWindow.asDouble();
+        else if (cassandraConfig.commitlog_sync == Config.CommitLogSync.batch)
+            throw CommitLogValidationHandler.missingBatchWindow();
+
+        cassandraConfig.commitlog_segment_size_in_mb = CommitLogDefinition.COMMIT_LOG_SEGMENT_SIZE.resolveModelAttribute(resolver, commitLog).asInt();
+
+        final ModelNode totalSpace = CommitLogDefinition.COMMIT_LOG_TOTAL_SPACE.resolveModelAttribute(resolver, commitLog);
+        if (totalSpace.isDefined())
+            cassandraConfig.commitlog_total_space_in_mb = totalSpace.asInt();
+
+        final ModelNode compression = CommitLogDefinition.COMMIT_LOG_COMPRESSION.resolveModelAttribute(resolver, commitLog);
+        if (compression.isDefined())
+            cassandraConfig.commitlog_compression = new ParameterizedClass(compression.asString(), Collections.<String, String>emptyMap());
+
+        cassandraConfig.endpoint_snitch= ClusterDefinition.ENDPOINT_SNITCH.resolveModelAttribute(resolver, fullModel).asString();
+        cassandraConfig.request_scheduler= ClusterDefinition.REQUEST_SCHEDULER.resolveModelAttribute(resolver, fullModel).asString();
+
+        cassandraConfig.memtable_allocation_type = Config.MemtableAllocationType.valueOf(ClusterDefinition.MEMTABLE_ALLOCATION_TYPE.resolveModelAttribute(resolver, fullModel).asString());
+
+        final ModelNode memtableHeapSpace = ClusterDefinition.MEMTABLE_HEAP_SPACE.resolveModelAttribute(resolver, fullModel);
+        if (memtableHeapSpace.isDefined())
+            cassandraConfig.memtable_heap_space_in_mb = memtableHeapSpace.asInt();
+
+        final ModelNode memtableOffheapSpace = ClusterDefinition.MEMTABLE_OFFHEAP_SPACE.resolveModelAttribute(resolver, fullModel);
+        if (memtableOffheapSpace.isDefined())
+            cassandraConfig.memtable_offheap_space_in_mb = memtableOffheapSpace.asInt();
+
+        final ModelNode memtableCleanupThreshold = ClusterDefinition.MEMTABLE_CLEANUP_THRESHOLD.resolveModelAttribute(resolver, fullModel);
+        if (memtableCleanupThreshold.isDefined())
+            cassandraConfig.memtable_cleanup_threshold = (float) memtableCleanupThreshold.asDouble();
+
+        cassandraConfig.compaction_throughput_mb_per_sec = ClusterDefinition.COMPACTION_THROUGHPUT.resolveModelAttribute(resolver, fullModel).asInt();
+        final ModelNode concurrentCompactors = ClusterDefinition.CONCURRENT_COMPACTORS.resolveModelAttribute(resolver, fullModel);
+        if (concurrentCompactors.isDefined())
+            cassandraConfig.concurrent_compactors = concurrentCompactors.asInt();
+        cassandraConfig.compaction_large_partition_warning_threshold_mb = ClusterDefinition.COMPACTION_LARGE_PARTITION_WARNING_THRESHOLD.resolveModelAttribute(resolver, fullModel).asInt();
+
+        cassandraConfig.read_request_timeout_in_ms = ClusterDefinition.READ_REQUEST_TIMEOUT.resolveModelAttribute(resolver, fullModel).asLong();
+        cassandraConfig.write_request_timeout_in_ms = ClusterDefinition.WRITE_REQUEST_TIMEOUT.resolveModelAttribute(resolver, fullModel).asLong();
+        cassandraConfig.range_request_timeout_in_ms = ClusterDefinition.RANGE_REQUEST_TIMEOUT.resolveModelAttribute(resolver, fullModel).asLong();
+        cassandraConfig.request_timeout_in_ms = ClusterDefinition.REQUEST_TIMEOUT.resolveModelAttribute(resolver, fullModel).asLong();
+
+        final ModelNode threadPools = tuning(fullModel, CassandraModel.THREAD_POOLS);
+        cassandraConfig.concurrent_reads = ThreadPoolsDefinition.CONCURRENT_READS.resolveModelAttribute(resolver, threadPools).asInt();
+        cassandraConfig.concurrent_writes = ThreadPoolsDefinition.CONCURRENT_WRITES.resolveModelAttribute(resolver, threadPools).asInt();
+        cassandraConfig.concurrent_counter_writes = ThreadPoolsDefinition.CONCURRENT_COUNTER_WRITES.resolveModelAttribute(resolver, threadPools).asInt();
+
+        final ModelNode caches = tuning(fullModel, CassandraModel.CACHES);
+        final ModelNode keyCacheSize = CachesDefinition.KEY_CACHE_SIZE.resolveModelAttribute(resolver, caches);
+        if (keyCacheSize.isDefined())
+            cassandraConfig.key_cache_size_in_mb = keyCacheSize.asLong();
+        cassandraConfig.key_cache_save_period = CachesDefinition.KEY_CACHE_SAVE_PERIOD.resolveModelAttribute(resolver, caches).asInt();
+        cassandraConfig.row_cache_size_in_mb = CachesDefinition.ROW_CACHE_SIZE.resolveModelAttribute(resolver, caches).asLong();
+        cassandraConfig.row_cache_save_period = CachesDefinition.ROW_CACHE_SAVE_PERIOD.resolveModelAttribute(resolver, caches).asInt();
+        final ModelNode counterCacheSize = CachesDefinition.COUNTER_CACHE_SIZE.resolveModelAttribute(resolver, caches);
+        if (counterCacheSize.isDefined())
+            cassandraConfig.counter_cache_size_in_mb = counterCacheSize.asLong();
+        cassandraConfig.counter_cache_save_period = CachesDefinition.COUNTER_CACHE_SAVE_PERIOD.resolveModelAttribute(resolver, caches).asInt();
 
         // TODO: encryption options
         //cassandraConfig.server_encryption_options =
@@ -154,4 +321,14 @@ class ClusterAdd extends AbstractAddStepHandler {
 
     }
 
+    /**
+     * The model of a tuning child, or an empty model (resolving to the attribute defaults) if it hasn't been added.
+     */
+    private static ModelNode tuning(ModelNode fullModel, String name) {
+        if (fullModel.hasDefined(CassandraModel.TUNING) && fullModel.get(CassandraModel.TUNING).hasDefined(name)) {
+            return fullModel.get(CassandraModel.TUNING, name);
+        }
+        return new ModelNode();
+    }
+
 }
@@ -17,21 +17,27 @@
 
 package org.wildfly.extension.cassandra;
 
+import org.apache.cassandra.config.Config;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.PersistentResourceDefinition;
-import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.access.constraint.ApplicationTypeConfig;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -48,7 +54,7 @@ public class ClusterDefinition extends PersistentResourceDefinition {
         super(CassandraExtension.CLUSTER_PATH,
                 CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER),
                 ClusterAdd.INSTANCE,
-                new ServiceRemoveStepHandler(ClusterAdd.SERVICE_NAME, ClusterAdd.INSTANCE));
+                ClusterRemove.INSTANCE);
 
         ApplicationTypeConfig atc = new ApplicationTypeConfig(CassandraExtension.SUBSYSTEM_NAME, CassandraModel.CLUSTER);
         accessConstraints = new ApplicationTypeAccessConstraintDefinition(atc).wrapAsList();
@@ -74,7 +80,7 @@ public class ClusterDefinition extends PersistentResourceDefinition {
             new SimpleAttributeDefinitionBuilder(CassandraModel.HINTED_HANDOFF_ENABLED, ModelType.BOOLEAN, true)
                     .setAllowExpression(false)
                     .setDefaultValue(new ModelNode(true))
-                    .setRestartAllServices()
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .build();
 
     static final SimpleAttributeDefinition AUTHENTICATOR =
@@ -115,6 +121,7 @@ public class ClusterDefinition extends PersistentResourceDefinition {
     static final SimpleAttributeDefinition LISTEN_ADDRESS =
             new SimpleAttributeDefinitionBuilder(CassandraModel.LISTEN_ADDRESS, ModelType.STRING, false)
                     .setAllowExpression(true)
+                    .setAlternatives(CassandraModel.STORAGE_SOCKET_BINDING)
                     .setRestartAllServices()
                     .build();
 
@@ -143,6 +150,14 @@ public class ClusterDefinition extends PersistentResourceDefinition {
                     .setRestartAllServices()
                     .build();
 
+    // no default: netty sizes the event loop itself (twice the number of cores). Netty reads the size once per JVM.
+    static final SimpleAttributeDefinition WORKER =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.WORKER, ModelType.STRING, true)
+                    .setAllowExpression(false)
+                    .setValidator(new StringLengthValidator(1, true, false))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
     static final SimpleAttributeDefinition RPC_PORT =
             new SimpleAttributeDefinitionBuilder(CassandraModel.RPC_PORT, ModelType.INT, true)
                     .setAllowExpression(true)
@@ -150,6 +165,22 @@ public class ClusterDefinition extends PersistentResourceDefinition {
                     .setRestartAllServices()
                     .build();
 
+    // ----------- socket bindings, take precedence over the addresses and ports above.
+    // Cassandra reads the addresses and ports into the DatabaseDescriptor once per JVM.
+
+    static final SimpleAttributeDefinition STORAGE_SOCKET_BINDING = socketBinding(CassandraModel.STORAGE_SOCKET_BINDING, CassandraModel.LISTEN_ADDRESS);
+    static final SimpleAttributeDefinition SSL_STORAGE_SOCKET_BINDING = socketBinding(CassandraModel.SSL_STORAGE_SOCKET_BINDING);
+    static final SimpleAttributeDefinition NATIVE_TRANSPORT_SOCKET_BINDING = socketBinding(CassandraModel.NATIVE_TRANSPORT_SOCKET_BINDING);
+    static final SimpleAttributeDefinition RPC_SOCKET_BINDING = socketBinding(CassandraModel.RPC_SOCKET_BINDING);
+
+    // netty falls back to NIO if the native library isn't available. Cassandra reads the setting once per JVM.
+    static final SimpleAttributeDefinition PREFER_EPOLL =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PREFER_EPOLL, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
     static final SimpleAttributeDefinition INTERNODE_AUTHENTICATOR =
             new SimpleAttributeDefinitionBuilder(CassandraModel.INTERNODE_AUTHENTICATOR, ModelType.STRING, true)
                     .setAllowExpression(false)
@@ -157,36 +188,43 @@ public class ClusterDefinition extends PersistentResourceDefinition {
                     .setRestartAllServices()
                     .build();
 
+    // like the data-directory resources, read into the DatabaseDescriptor once per JVM
     static final SimpleAttributeDefinition DATA_FILE_DIR =
             new SimpleAttributeDefinitionBuilder(CassandraModel.DATA_FILE_DIR, ModelType.STRING, true)
                     .setAllowExpression(true)
-                    .setRestartAllServices()
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
                     .build();
 
+    // read by the cache services and the saved cache loading, once per JVM
     static final SimpleAttributeDefinition SAVED_CACHES_DIR =
             new SimpleAttributeDefinitionBuilder(CassandraModel.SAVED_CACHES_DIR, ModelType.STRING, true)
                     .setAllowExpression(true)
-                    .setRestartAllServices()
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
                     .build();
 
+    // the commit log is created once per JVM, like the settings it reads from the DatabaseDescriptor
     static final SimpleAttributeDefinition COMMIT_LOG_DIR =
             new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_DIR, ModelType.STRING, true)
                     .setAllowExpression(true)
-                    .setRestartAllServices()
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
                     .build();
 
     static final SimpleAttributeDefinition COMMIT_LOG_SYNC =
             new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_SYNC, ModelType.STRING, true)
                     .setAllowExpression(false)
-                    .setDefaultValue(new ModelNode("periodic"))
-                    .setRestartAllServices()
+                    .setDefaultValue(new ModelNode(Config.CommitLogSync.periodic.name()))
+                    .setValidator(new StringAllowedValuesValidator(
+                            Config.CommitLogSync.periodic.name(),
+                            Config.CommitLogSync.batch.name()))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
                     .build();
 
     static final SimpleAttributeDefinition COMMIT_LOG_SYNC_PERIOD =
             new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_SYNC_PERIOD, ModelType.INT, true)
                     .setAllowExpression(false)
                     .setDefaultValue(new ModelNode(10000))
-                    .setRestartAllServices()
+                    .setValidator(new IntRangeValidator(1, true, false))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
                     .build();
 
 
@@ -219,6 +257,80 @@ public class ClusterDefinition extends PersistentResourceDefinition {
                     .setRestartAllServices()
                     .build();
 
+    // the memtable settings are read into the DatabaseDescriptor once per JVM
+    static final SimpleAttributeDefinition MEMTABLE_ALLOCATION_TYPE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_ALLOCATION_TYPE, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(Config.MemtableAllocationType.heap_buffers.name()))
+                    .setValidator(new StringAllowedValuesValidator(
+                            Config.MemtableAllocationType.unslabbed_heap_buffers.name(),
+                            Config.MemtableAllocationType.heap_buffers.name(),
+                            Config.MemtableAllocationType.offheap_buffers.name(),
+                            Config.MemtableAllocationType.offheap_objects.name()))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: cassandra uses 1/4 of the heap
+    static final SimpleAttributeDefinition MEMTABLE_HEAP_SPACE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_HEAP_SPACE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: cassandra uses 1/4 of the heap
+    static final SimpleAttributeDefinition MEMTABLE_OFFHEAP_SPACE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_OFFHEAP_SPACE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: cassandra uses 1 / (memtable_flush_writers + 1). It refuses to start outside of [0.01, 0.99]
+    static final SimpleAttributeDefinition MEMTABLE_CLEANUP_THRESHOLD =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_CLEANUP_THRESHOLD, ModelType.DOUBLE, true)
+                    .setAllowExpression(true)
+                    .setValidator(new DoubleRangeValidator(0.01, true, 0.99, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // 0 disables throttling
+    static final SimpleAttributeDefinition COMPACTION_THROUGHPUT =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPACTION_THROUGHPUT, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(16))
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    // no default: cassandra uses min(number of disks, number of cores), bounded by 2 and 8
+    static final SimpleAttributeDefinition CONCURRENT_COMPACTORS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CONCURRENT_COMPACTORS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    static final SimpleAttributeDefinition COMPACTION_LARGE_PARTITION_WARNING_THRESHOLD =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPACTION_LARGE_PARTITION_WARNING_THRESHOLD, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(100))
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition READ_REQUEST_TIMEOUT = timeout(CassandraModel.READ_REQUEST_TIMEOUT, 5000);
+    static final SimpleAttributeDefinition WRITE_REQUEST_TIMEOUT = timeout(CassandraModel.WRITE_REQUEST_TIMEOUT, 2000);
+    static final SimpleAttributeDefinition RANGE_REQUEST_TIMEOUT = timeout(CassandraModel.RANGE_REQUEST_TIMEOUT, 10000);
+    static final SimpleAttributeDefinition REQUEST_TIMEOUT = timeout(CassandraModel.REQUEST_TIMEOUT, 10000);
+
+    static final SimpleAttributeDefinition TRACE_PROBABILITY =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.TRACE_PROBABILITY, ModelType.DOUBLE, true)
+                    .setAllowExpression(true)
+                    .setValidator(new DoubleRangeValidator(0, true, 1, true, true))
+                    .setDefaultValue(new ModelNode(0.0))
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
 
     // -----------
     static final AttributeDefinition[] ATTRIBUTES = {
@@ -228,27 +340,176 @@ public class ClusterDefinition extends PersistentResourceDefinition {
             PARTIONER,
             SEED_PROVIDER, SEEDS,
             LISTEN_ADDRESS, BROADCAST_ADDRESS,
-            START_NATIVE_TRANSPORT, NATIVE_TRANSPORT_PORT,
+            START_NATIVE_TRANSPORT, NATIVE_TRANSPORT_PORT, WORKER,
             START_RPC, RPC_PORT,
+            STORAGE_SOCKET_BINDING, SSL_STORAGE_SOCKET_BINDING, NATIVE_TRANSPORT_SOCKET_BINDING, RPC_SOCKET_BINDING,
+            PREFER_EPOLL,
             COMMIT_LOG_DIR, SAVED_CACHES_DIR, DATA_FILE_DIR,
             INTERNODE_AUTHENTICATOR,
             COMMIT_LOG_SYNC, COMMIT_LOG_SYNC_PERIOD,
             ENDPOINT_SNITCH,
             REQUEST_SCHEDULER,
-            CLIENT_ENCRYPTION, SERVER_ENCRYPTION
+            CLIENT_ENCRYPTION, SERVER_ENCRYPTION,
+            MEMTABLE_ALLOCATION_TYPE, MEMTABLE_HEAP_SPACE, MEMTABLE_OFFHEAP_SPACE, MEMTABLE_CLEANUP_THRESHOLD,
+            COMPACTION_THROUGHPUT, CONCURRENT_COMPACTORS, COMPACTION_LARGE_PARTITION_WARNING_THRESHOLD,
+            READ_REQUEST_TIMEOUT, WRITE_REQUEST_TIMEOUT, RANGE_REQUEST_TIMEOUT, REQUEST_TIMEOUT,
+            TRACE_PROBABILITY
+
+    };
+
+    // ----------- runtime metrics
+
+    static final SimpleAttributeDefinition P50 = latency(CassandraModel.P50);
+    static final SimpleAttributeDefinition P95 = latency(CassandraModel.P95);
+    static final SimpleAttributeDefinition P99 = latency(CassandraModel.P99);
+    static final SimpleAttributeDefinition P999 = latency(CassandraModel.P999);
+    static final SimpleAttributeDefinition MEAN = latency(CassandraModel.MEAN);
+    static final SimpleAttributeDefinition MAX = latency(CassandraModel.MAX);
+    static final SimpleAttributeDefinition COUNT =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final ObjectTypeAttributeDefinition READ_LATENCY = latencyHistogram(CassandraModel.READ_LATENCY);
+    static final ObjectTypeAttributeDefinition WRITE_LATENCY = latencyHistogram(CassandraModel.WRITE_LATENCY);
+    static final ObjectTypeAttributeDefinition RANGE_LATENCY = latencyHistogram(CassandraModel.RANGE_LATENCY);
+
+    static final SimpleAttributeDefinition MEMTABLE_ON_HEAP_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_ON_HEAP_SIZE, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition MEMTABLE_OFF_HEAP_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_OFF_HEAP_SIZE, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
 
+    static final ObjectTypeAttributeDefinition STARTUP_TIMINGS = startupTimings();
+
+    static final SimpleAttributeDefinition STATE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.STATE, ModelType.STRING, true)
+                    .setStorageRuntime()
+                    .build();
+
+    /**
+     * Latency histograms, shared with the keyspace resources
+     */
+    static final AttributeDefinition[] LATENCY_METRICS = {
+            READ_LATENCY, WRITE_LATENCY, RANGE_LATENCY
     };
 
-    private static final List CHILDREN = Collections.EMPTY_LIST;
+    private static ObjectTypeAttributeDefinition startupTimings() {
+        StartupTimings.Phase[] phases = StartupTimings.Phase.values();
+        SimpleAttributeDefinition[] fields = new SimpleAttributeDefinition[phases.length + 1];
+        for (int i = 0; i < phases.length; i++) {
+            fields[i] = duration(phases[i].getAttributeName());
+        }
+        fields[phases.length] = duration(CassandraModel.TOTAL);
+        return ObjectTypeAttributeDefinition.Builder.of(CassandraModel.STARTUP_TIMINGS, fields)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleAttributeDefinition duration(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleAttributeDefinition socketBinding(String name, String... alternatives) {
+        SimpleAttributeDefinitionBuilder builder = new SimpleAttributeDefinitionBuilder(name, ModelType.STRING, true)
+                .setAllowExpression(false)
+                .setValidator(new StringLengthValidator(1, true, false))
+                .addAccessConstraint(SensitiveTargetAccessConstraintDefinition.SOCKET_BINDING_REF)
+                .setFlags(AttributeAccess.Flag.RESTART_JVM);
+        if (alternatives.length > 0) {
+            builder.setAlternatives(alternatives);
+        }
+        return builder.build();
+    }
+
+    private static SimpleAttributeDefinition timeout(String name, long defaultValue) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setAllowExpression(true)
+                .setDefaultValue(new ModelNode(defaultValue))
+                .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                .build();
+    }
+
+    private static SimpleAttributeDefinition latency(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.DOUBLE, true)
+                .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static ObjectTypeAttributeDefinition latencyHistogram(String name) {
+        return ObjectTypeAttributeDefinition.Builder.of(name, P50, P95, P99, P999, MEAN, MAX, COUNT)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static final List<? extends PersistentResourceDefinition> CHILDREN = Arrays.asList(
+            ThreadPoolsDefinition.INSTANCE,
+            CachesDefinition.INSTANCE,
+            CommitLogDefinition.INSTANCE,
+            StartupDefinition.INSTANCE,
+            NativeTransportDefinition.INSTANCE,
+            DataDirectoryDefinition.INSTANCE,
+            PrometheusExporterDefinition.INSTANCE
+    );
 
     static final ClusterDefinition INSTANCE = new ClusterDefinition();
 
     @Override
     public void registerAttributes(final ManagementResourceRegistration rootResourceRegistration) {
         ClusterWriteAttributeHandler handler = new ClusterWriteAttributeHandler(ATTRIBUTES);
+        LiveWriteAttributeHandler liveHandler = new LiveWriteAttributeHandler(ATTRIBUTES);
+        RestartRequiredWriteAttributeHandler restartRequiredHandler = new RestartRequiredWriteAttributeHandler(ATTRIBUTES);
         for (AttributeDefinition attr : ATTRIBUTES) {
-            rootResourceRegistration.registerReadWriteAttribute(attr, null, handler);
+            if (LiveWriteAttributeHandler.isLive(attr)) {
+                rootResourceRegistration.registerReadWriteAttribute(attr, null, liveHandler);
+            } else if (attr.getFlags().contains(AttributeAccess.Flag.RESTART_JVM)) {
+                rootResourceRegistration.registerReadWriteAttribute(attr, null, restartRequiredHandler);
+            } else {
+                rootResourceRegistration.registerReadWriteAttribute(attr, null, handler);
+            }
+        }
+        for (AttributeDefinition attr : LATENCY_METRICS) {
+            rootResourceRegistration.registerMetric(attr, LatencyMetricsHandler.INSTANCE);
         }
+        rootResourceRegistration.registerMetric(MEMTABLE_ON_HEAP_SIZE, MemtableMetricsHandler.INSTANCE);
+        rootResourceRegistration.registerMetric(MEMTABLE_OFF_HEAP_SIZE, MemtableMetricsHandler.INSTANCE);
+        rootResourceRegistration.registerMetric(STARTUP_TIMINGS, StartupTimingsHandler.INSTANCE);
+        rootResourceRegistration.registerReadOnlyAttribute(STATE, StateHandler.INSTANCE);
+    }
+
+    @Override
+    public void registerChildren(ManagementResourceRegistration resourceRegistration) {
+        super.registerChildren(resourceRegistration);
+
+        // runtime only resources, not persisted
+        resourceRegistration.registerSubModel(ThreadPoolMetricsDefinition.INSTANCE).setRuntimeOnly(true);
+        resourceRegistration.registerSubModel(CacheMetricsDefinition.INSTANCE).setRuntimeOnly(true);
+        resourceRegistration.registerSubModel(CommitLogMetricsDefinition.INSTANCE).setRuntimeOnly(true);
+        resourceRegistration.registerSubModel(CompactionMetricsDefinition.INSTANCE).setRuntimeOnly(true);
+        resourceRegistration.registerSubModel(NativeTransportMetricsDefinition.INSTANCE).setRuntimeOnly(true);
+        resourceRegistration.registerSubModel(KeyspaceDefinition.INSTANCE).setRuntimeOnly(true);
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(ResizeCachesHandler.DEFINITION, ResizeCachesHandler.INSTANCE);
+        resourceRegistration.registerOperationHandler(SetCompactionThroughputHandler.DEFINITION, SetCompactionThroughputHandler.INSTANCE);
+        resourceRegistration.registerOperationHandler(SetConcurrentCompactorsHandler.DEFINITION, SetConcurrentCompactorsHandler.INSTANCE);
+        resourceRegistration.registerOperationHandler(DiskBenchmarkHandler.DEFINITION, DiskBenchmarkHandler.INSTANCE);
+        resourceRegistration.registerOperationHandler(StressHandler.DEFINITION, StressHandler.INSTANCE);
     }
 
     @Override
@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ServiceRemoveStepHandler;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Removes the cluster resource, its service and the services of its {@link CqlSession} and Prometheus exporter.
+ */
+class ClusterRemove extends ServiceRemoveStepHandler {
+
+    static final ClusterRemove INSTANCE = new ClusterRemove();
+
+    private ClusterRemove() {
+        super(ClusterAdd.SERVICE_NAME, ClusterAdd.INSTANCE);
+    }
+
+    @Override
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) {
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        CqlSessionService.remove(context, address.getLastElement().getValue());
+        context.removeService(PrometheusExporterService.serviceName(address.getLastElement().getValue()));
+        super.performRuntime(context, operation, model);
+    }
+
+    @Override
+    protected void recoverServices(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+        // the cluster service and the session are reinstalled by ClusterAdd
+        super.recoverServices(context, operation, model);
+        final String exporter = CassandraExtension.PROMETHEUS_EXPORTER_PATH.getValue();
+        if (model.hasDefined(CassandraModel.EXPORTER) && model.get(CassandraModel.EXPORTER).hasDefined(exporter)) {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR)).append(CassandraExtension.PROMETHEUS_EXPORTER_PATH);
+            PrometheusExporterAdd.installExporter(context, address, model.get(CassandraModel.EXPORTER, exporter), new ServiceVerificationHandler());
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Resource for a cluster. Delegates to a regular resource for the persistent model and adds the
+ * runtime {@code keyspace=*} children, which are populated from the running node (see {@link KeyspaceResource}).
+ * <p/>
+ * The cassandra metrics the keyspaces are read from are JVM wide. They belong to the cluster owning the cassandra
+ * singletons of the server (see {@link DMRConfigLoader}), the other clusters don't list any keyspace.
+ */
+class ClusterResource implements Resource {
+
+    private final Resource delegate;
+    private volatile String clusterName;
+
+    ClusterResource(Resource delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * The name of the cluster, known once the add operation populates the resource
+     */
+    void setClusterName(String clusterName) {
+        this.clusterName = clusterName;
+    }
+
+    @Override
+    public ModelNode getModel() {
+        return delegate.getModel();
+    }
+
+    @Override
+    public void writeModel(ModelNode newModel) {
+        delegate.writeModel(newModel);
+    }
+
+    @Override
+    public boolean isModelDefined() {
+        return delegate.isModelDefined();
+    }
+
+    @Override
+    public boolean hasChild(PathElement element) {
+        if (CassandraModel.KEYSPACE.equals(element.getKey())) {
+            return keyspaces().contains(element.getValue());
+        }
+        return delegate.hasChild(element);
+    }
+
+    @Override
+    public Resource getChild(PathElement element) {
+        if (CassandraModel.KEYSPACE.equals(element.getKey())) {
+            return hasChild(element) ? new KeyspaceResource(element.getValue()) : null;
+        }
+        return delegate.getChild(element);
+    }
+
+    @Override
+    public Resource requireChild(PathElement element) {
+        if (CassandraModel.KEYSPACE.equals(element.getKey())) {
+            if (hasChild(element)) {
+                return new KeyspaceResource(element.getValue());
+            }
+            throw new NoSuchResourceException(element);
+        }
+        return delegate.requireChild(element);
+    }
+
+    @Override
+    public boolean hasChildren(String childType) {
+        if (CassandraModel.KEYSPACE.equals(childType)) {
+            return !keyspaces().isEmpty();
+        }
+        return delegate.hasChildren(childType);
+    }
+
+    @Override
+    public Resource navigate(PathAddress address) {
+        return Tools.navigate(this, address);
+    }
+
+    @Override
+    public Set<String> getChildTypes() {
+        Set<String> result = new HashSet<String>(delegate.getChildTypes());
+        result.add(CassandraModel.KEYSPACE);
+        return result;
+    }
+
+    @Override
+    public Set<String> getChildrenNames(String childType) {
+        if (CassandraModel.KEYSPACE.equals(childType)) {
+            return keyspaces();
+        }
+        return delegate.getChildrenNames(childType);
+    }
+
+    @Override
+    public Set<ResourceEntry> getChildren(String childType) {
+        if (CassandraModel.KEYSPACE.equals(childType)) {
+            Set<ResourceEntry> result = new LinkedHashSet<ResourceEntry>();
+            for (String keyspace : keyspaces()) {
+                result.add(new KeyspaceResource(keyspace));
+            }
+            return result;
+        }
+        return delegate.getChildren(childType);
+    }
+
+    @Override
+    public void registerChild(PathElement address, Resource resource) {
+        if (CassandraModel.KEYSPACE.equals(address.getKey())) {
+            throw new IllegalStateException("Keyspace resources are read from the running node and cannot be registered");
+        }
+        delegate.registerChild(address, resource);
+    }
+
+    @Override
+    public Resource removeChild(PathElement address) {
+        if (CassandraModel.KEYSPACE.equals(address.getKey())) {
+            throw new IllegalStateException("Keyspace resources are read from the running node and cannot be removed");
+        }
+        return delegate.removeChild(address);
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return delegate.isRuntime();
+    }
+
+    @Override
+    public boolean isProxy() {
+        return delegate.isProxy();
+    }
+
+    @Override
+    public Resource clone() {
+        ClusterResource clone = new ClusterResource(delegate.clone());
+        clone.setClusterName(clusterName);
+        return clone;
+    }
+
+    private Set<String> keyspaces() {
+        String name = clusterName;
+        if (name == null || !name.equals(DMRConfigLoader.getActiveCluster())) {
+            return Collections.emptySet();
+        }
+        return CassandraMetrics.keyspaces();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Base class for runtime handlers (metrics and operations) of a cluster and its children.
+ * Resolves the cluster service the operation address belongs to.
+ */
+abstract class ClusterRuntimeHandler extends AbstractRuntimeOnlyHandler {
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        executeRuntimeStep(context, operation, getRunningService(context, address));
+        context.stepCompleted();
+    }
+
+    /**
+     * @param service the cluster service, or {@code null} if the node isn't running
+     */
+    protected abstract void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException;
+
+    static OperationFailedException notRunning(ModelNode operation) {
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        return new OperationFailedException("Cassandra cluster '" + getClusterName(address) + "' is not running");
+    }
+
+    /**
+     * @return the cluster service in whatever state it is, or {@code null} if it isn't installed
+     */
+    static CassandraService getService(OperationContext context, PathAddress address) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(ClusterAdd.serviceName(getClusterName(address)));
+        return controller != null ? (CassandraService) controller.getService() : null;
+    }
+
+    static CassandraService getRunningService(OperationContext context, PathAddress address) {
+        ServiceController<?> controller = context.getServiceRegistry(false).getService(ClusterAdd.serviceName(getClusterName(address)));
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        return (CassandraService) controller.getValue();
+    }
+
+    static String getClusterName(PathAddress address) {
+        for (PathElement element : address) {
+            if (CassandraModel.CLUSTER.equals(element.getKey())) {
+                return element.getValue();
+            }
+        }
+        throw new IllegalArgumentException(address.toString());
+    }
+}
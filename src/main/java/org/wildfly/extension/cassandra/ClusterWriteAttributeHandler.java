@@ -46,7 +46,7 @@ public class ClusterWriteAttributeHandler extends RestartParentWriteAttributeHan
 
     @Override
     protected ServiceName getParentServiceName(PathAddress parentAddress) {
-        return ClusterAdd.SERVICE_NAME.append(parentAddress.getLastElement().getValue());
+        return ClusterAdd.serviceName(parentAddress.getLastElement().getValue());
     }
 
     @Override
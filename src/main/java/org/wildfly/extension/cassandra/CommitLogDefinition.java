@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Commit log segment, space and compression settings. The sync mode itself is configured on the cluster.
+ * The commit log is created once per JVM, changes require a restart of the server.
+ */
+public class CommitLogDefinition extends PersistentResourceDefinition {
+
+    // required if commitlog-sync is 'batch', checked by CommitLogValidationHandler
+    static final SimpleAttributeDefinition COMMIT_LOG_SYNC_BATCH_WINDOW =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW, ModelType.DOUBLE, true)
+                    .setAllowExpression(true)
+                    .setValidator(new DoubleRangeValidator(0, false, Double.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final SimpleAttributeDefinition COMMIT_LOG_SEGMENT_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_SEGMENT_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(32))
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: cassandra uses min(8192, 1/4 of the commit log volume)
+    static final SimpleAttributeDefinition COMMIT_LOG_TOTAL_SPACE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_TOTAL_SPACE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: the commit log is not compressed
+    static final SimpleAttributeDefinition COMMIT_LOG_COMPRESSION =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMMIT_LOG_COMPRESSION, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new StringAllowedValuesValidator("LZ4Compressor", "SnappyCompressor", "DeflateCompressor"))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {
+            COMMIT_LOG_SYNC_BATCH_WINDOW, COMMIT_LOG_SEGMENT_SIZE, COMMIT_LOG_TOTAL_SPACE, COMMIT_LOG_COMPRESSION
+    };
+
+    static final CommitLogDefinition INSTANCE = new CommitLogDefinition();
+
+    private CommitLogDefinition() {
+        super(CassandraExtension.COMMIT_LOG_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.COMMIT_LOG),
+                new ClusterTuningAdd(ATTRIBUTES),
+                ClusterTuningRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        RestartRequiredWriteAttributeHandler handler = new RestartRequiredWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Read-only runtime resource exposing the commit log activity of the running node.
+ */
+public class CommitLogMetricsDefinition extends SimpleResourceDefinition {
+
+    static final SimpleAttributeDefinition PENDING_TASKS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PENDING_TASKS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition COMPLETED_TASKS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPLETED_TASKS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition ACTIVE_SEGMENTS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.ACTIVE_SEGMENTS, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition TOTAL_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.TOTAL_SIZE, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition REPLAYED_MUTATIONS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.REPLAYED_MUTATIONS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition REPLAY_RATE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.REPLAY_RATE, ModelType.DOUBLE, true)
+                    .setMeasurementUnit(MeasurementUnit.PER_SECOND)
+                    .setStorageRuntime()
+                    .build();
+
+    // time spent waiting for the commit log to sync
+    static final ObjectTypeAttributeDefinition SYNC_LATENCY =
+            ObjectTypeAttributeDefinition.Builder.of(CassandraModel.SYNC_LATENCY,
+                    ClusterDefinition.P50, ClusterDefinition.P95, ClusterDefinition.P99, ClusterDefinition.P999,
+                    ClusterDefinition.MEAN, ClusterDefinition.MAX, ClusterDefinition.COUNT)
+                    .setStorageRuntime()
+                    .build();
+
+    static final CommitLogMetricsDefinition INSTANCE = new CommitLogMetricsDefinition();
+
+    private CommitLogMetricsDefinition() {
+        super(CassandraExtension.COMMIT_LOG_METRICS_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.RUNTIME_METRICS, CassandraModel.COMMIT_LOG));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(PENDING_TASKS, CommitLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(COMPLETED_TASKS, CommitLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(ACTIVE_SEGMENTS, CommitLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(TOTAL_SIZE, CommitLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(SYNC_LATENCY, CommitLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(REPLAYED_MUTATIONS, CommitLogMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(REPLAY_RATE, CommitLogMetricsHandler.INSTANCE);
+    }
+}
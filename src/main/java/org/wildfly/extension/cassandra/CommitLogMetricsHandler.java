@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.commitlog.CommitLog;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+/**
+ * Reads the commit log activity of the running node.
+ */
+class CommitLogMetricsHandler extends ClusterRuntimeHandler {
+
+    static final CommitLogMetricsHandler INSTANCE = new CommitLogMetricsHandler();
+
+    private CommitLogMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (CassandraModel.PENDING_TASKS.equals(attributeName)) {
+            result.set(CassandraMetrics.read("type=CommitLog,name=PendingTasks", CassandraMetrics.VALUE));
+        } else if (CassandraModel.COMPLETED_TASKS.equals(attributeName)) {
+            result.set(CassandraMetrics.read("type=CommitLog,name=CompletedTasks", CassandraMetrics.VALUE));
+        } else if (CassandraModel.ACTIVE_SEGMENTS.equals(attributeName)) {
+            result.set(CommitLog.instance.getActiveSegmentNames().size());
+        } else if (CassandraModel.TOTAL_SIZE.equals(attributeName)) {
+            result.set(CassandraMetrics.read("type=CommitLog,name=TotalCommitLogSize", CassandraMetrics.VALUE));
+        } else if (CassandraModel.SYNC_LATENCY.equals(attributeName)) {
+            CassandraMetrics.readLatency(CassandraMetrics.metric("type=CommitLog,name=WaitingOnCommit"), result);
+        } else if (CassandraModel.REPLAYED_MUTATIONS.equals(attributeName)) {
+            final StartupTimings timings = service.getStartupTimings();
+            if (timings != null && timings.getReplayedMutations() >= 0) {
+                result.set(timings.getReplayedMutations());
+            }
+        } else if (CassandraModel.REPLAY_RATE.equals(attributeName)) {
+            final StartupTimings timings = service.getStartupTimings();
+            if (timings != null && timings.getReplayRate() >= 0) {
+                result.set(timings.getReplayRate());
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.config.Config;
+import org.jboss.as.controller.NoSuchResourceException;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Checks that the commit log settings of a cluster are consistent: the batch sync mode requires a batch window.
+ * <p/>
+ * The settings span the cluster and its {@code tuning=commit-log} child, so the check runs at the end of the model stage,
+ * once all the steps of a composite operation (or of the boot) have updated the model. A bad write then fails
+ * the operation instead of the next start of the node.
+ */
+class CommitLogValidationHandler implements OperationStepHandler {
+
+    static final CommitLogValidationHandler INSTANCE = new CommitLogValidationHandler();
+
+    private CommitLogValidationHandler() {
+    }
+
+    /**
+     * Validates the cluster the address belongs to once the model stage completes.
+     */
+    static void addValidationStep(OperationContext context, PathAddress address) {
+        PathAddress clusterAddress = PathAddress.EMPTY_ADDRESS;
+        for (PathElement element : address) {
+            clusterAddress = clusterAddress.append(element);
+            if (CassandraModel.CLUSTER.equals(element.getKey())) {
+                break;
+            }
+        }
+        ModelNode validation = new ModelNode();
+        validation.get(OP).set("validate-commit-log");
+        validation.get(OP_ADDR).set(clusterAddress.toModelNode());
+        context.addStep(validation, INSTANCE, OperationContext.Stage.MODEL);
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        final Resource cluster;
+        try {
+            cluster = context.readResourceFromRoot(address, true);
+        } catch (NoSuchResourceException e) {
+            // removed by a later step of the same operation
+            context.stepCompleted();
+            return;
+        }
+        validate(Resource.Tools.readModel(cluster));
+        context.stepCompleted();
+    }
+
+    /**
+     * @param clusterModel the model of a cluster, including its children
+     */
+    static void validate(ModelNode clusterModel) throws OperationFailedException {
+        // doesn't allow expressions
+        final boolean batch = clusterModel.hasDefined(CassandraModel.COMMIT_LOG_SYNC)
+                && Config.CommitLogSync.batch.name().equals(clusterModel.get(CassandraModel.COMMIT_LOG_SYNC).asString());
+        if (!batch) {
+            return;
+        }
+        final boolean batchWindow = clusterModel.hasDefined(CassandraModel.TUNING)
+                && clusterModel.get(CassandraModel.TUNING).hasDefined(CassandraModel.COMMIT_LOG)
+                && clusterModel.get(CassandraModel.TUNING, CassandraModel.COMMIT_LOG).hasDefined(CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW);
+        if (!batchWindow) {
+            throw missingBatchWindow();
+        }
+    }
+
+    static OperationFailedException missingBatchWindow() {
+        return new OperationFailedException(String.format("%s '%s' requires %s of %s=%s to be set",
+                CassandraModel.COMMIT_LOG_SYNC, Config.CommitLogSync.batch, CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW,
+                CassandraModel.TUNING, CassandraModel.COMMIT_LOG));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Read-only runtime resource exposing the compaction activity and backlog of the running node.
+ */
+public class CompactionMetricsDefinition extends SimpleResourceDefinition {
+
+    static final SimpleAttributeDefinition COMPACTION_ID = string(CassandraModel.COMPACTION_ID);
+    static final SimpleAttributeDefinition KEYSPACE = string(CassandraModel.KEYSPACE);
+    static final SimpleAttributeDefinition TABLE = string(CassandraModel.TABLE);
+    static final SimpleAttributeDefinition COMPACTION_TYPE = string(CassandraModel.COMPACTION_TYPE);
+    // bytes for compactions, keys or ranges for the index summary redistributions and validations
+    static final SimpleAttributeDefinition PROGRESS = count(CassandraModel.PROGRESS);
+    static final SimpleAttributeDefinition TOTAL = count(CassandraModel.TOTAL);
+    static final SimpleAttributeDefinition UNIT = string(CassandraModel.UNIT);
+
+    static final ObjectListAttributeDefinition ACTIVE_COMPACTIONS =
+            ObjectListAttributeDefinition.Builder.of(CassandraModel.ACTIVE_COMPACTIONS,
+                    ObjectTypeAttributeDefinition.Builder.of(CassandraModel.ACTIVE_COMPACTIONS,
+                            COMPACTION_ID, KEYSPACE, TABLE, COMPACTION_TYPE, PROGRESS, TOTAL, UNIT)
+                            .build())
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition PENDING_TASKS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PENDING_TASKS, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition COMPLETED_TASKS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPLETED_TASKS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final ObjectListAttributeDefinition PENDING_TASKS_BY_TABLE =
+            ObjectListAttributeDefinition.Builder.of(CassandraModel.PENDING_TASKS_BY_TABLE,
+                    ObjectTypeAttributeDefinition.Builder.of(CassandraModel.PENDING_TASKS_BY_TABLE,
+                            KEYSPACE, TABLE, PENDING_TASKS)
+                            .build())
+                    .setStorageRuntime()
+                    .build();
+
+    static final CompactionMetricsDefinition INSTANCE = new CompactionMetricsDefinition();
+
+    private CompactionMetricsDefinition() {
+        super(CassandraExtension.COMPACTION_METRICS_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.RUNTIME_METRICS, CassandraModel.COMPACTIONS));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(ACTIVE_COMPACTIONS, CompactionMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(PENDING_TASKS, CompactionMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(COMPLETED_TASKS, CompactionMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(PENDING_TASKS_BY_TABLE, CompactionMetricsHandler.INSTANCE);
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(StopCompactionHandler.DEFINITION, StopCompactionHandler.INSTANCE);
+    }
+
+    private static SimpleAttributeDefinition string(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.STRING, true)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleAttributeDefinition count(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+}
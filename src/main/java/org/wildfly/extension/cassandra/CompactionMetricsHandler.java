@@ -0,0 +1,80 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.compaction.CompactionManager;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+
+import javax.management.ObjectName;
+import java.util.Map;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+/**
+ * Reads the compaction activity from the compaction manager of the running node.
+ */
+class CompactionMetricsHandler extends ClusterRuntimeHandler {
+
+    static final CompactionMetricsHandler INSTANCE = new CompactionMetricsHandler();
+
+    private CompactionMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (CassandraModel.ACTIVE_COMPACTIONS.equals(attributeName)) {
+            result.setEmptyList();
+            for (Map<String, String> compaction : CompactionManager.instance.getCompactions()) {
+                ModelNode entry = new ModelNode();
+                entry.get(CassandraModel.COMPACTION_ID).set(compaction.get("id"));
+                entry.get(CassandraModel.KEYSPACE).set(compaction.get("keyspace"));
+                entry.get(CassandraModel.TABLE).set(compaction.get("columnfamily"));
+                entry.get(CassandraModel.COMPACTION_TYPE).set(compaction.get("taskType"));
+                entry.get(CassandraModel.PROGRESS).set(Long.parseLong(compaction.get("completed")));
+                entry.get(CassandraModel.TOTAL).set(Long.parseLong(compaction.get("total")));
+                entry.get(CassandraModel.UNIT).set(compaction.get("unit"));
+                result.add(entry);
+            }
+        } else if (CassandraModel.PENDING_TASKS.equals(attributeName)) {
+            result.set(CompactionManager.instance.getPendingTasks());
+        } else if (CassandraModel.COMPLETED_TASKS.equals(attributeName)) {
+            result.set(CompactionManager.instance.getCompletedTasks());
+        } else if (CassandraModel.PENDING_TASKS_BY_TABLE.equals(attributeName)) {
+            // the per table estimates of the compaction strategies, as published by the table metrics
+            result.setEmptyList();
+            for (ObjectName name : CassandraMetrics.query("type=ColumnFamily,name=PendingCompactions,*")) {
+                ModelNode pending = CassandraMetrics.read(name, CassandraMetrics.VALUE);
+                if (pending.isDefined() && pending.asInt() > 0) {
+                    ModelNode entry = new ModelNode();
+                    entry.get(CassandraModel.KEYSPACE).set(name.getKeyProperty("keyspace"));
+                    entry.get(CassandraModel.TABLE).set(name.getKeyProperty("scope"));
+                    entry.get(CassandraModel.PENDING_TASKS).set(pending);
+                    result.add(entry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.cassandra.cql3.UntypedResultSet;
+import org.apache.cassandra.exceptions.CassandraException;
+import org.apache.cassandra.exceptions.RequestValidationException;
+
+/**
+ * Executes CQL against the query processor of the embedded node, without going through the native transport.
+ * <p>
+ * A default session is installed for each cluster and can be injected by deployments, either through an MSC dependency on
+ * {@link CqlSessionService#serviceName(String)} or by looking it up at {@code java:jboss/cassandra/<cluster-name>/session}.
+ * Session resources add sessions with their own consistency level and request limits, bound to their {@code jndi-name}.
+ * Sessions are available once the node serves requests. Queries run with the permissions of the node itself and must use
+ * qualified table names ({@code keyspace.table}), there is no {@code USE} state.
+ *
+ * @see PreparedQuery
+ */
+public interface CqlSession {
+
+    /**
+     * Prepares a query. Prepared queries are shared with the clients of the native transport and are
+     * re-prepared transparently if a schema change evicts them.
+     */
+    PreparedQuery prepare(String query) throws RequestValidationException;
+
+    /**
+     * Prepares (or reuses the prepared statement of) a query and executes it with the given bind values.
+     */
+    UntypedResultSet execute(String query, Object... values) throws CassandraException;
+
+    /**
+     * Like {@link #execute(String, Object...)}, but runs the query on the session's executor. Never blocks the caller:
+     * if the session already executes its maximum of concurrent requests, the returned future fails right away
+     * with an {@code OverloadedException} instead of waiting for the borrow timeout.
+     */
+    ListenableFuture<UntypedResultSet> executeAsync(String query, Object... values);
+
+}
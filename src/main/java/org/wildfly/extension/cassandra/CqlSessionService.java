@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.cassandra.config.Config;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.naming.ManagedReferenceInjector;
+import org.jboss.as.naming.ServiceBasedNamingStore;
+import org.jboss.as.naming.deployment.ContextNames;
+import org.jboss.as.naming.service.BinderService;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StabilityMonitor;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides a {@link CqlSession}. Depends on the cluster service, so the session comes up once the
+ * node serves requests and goes down while the node is restarted.
+ * <p>
+ * Each cluster has a default session, further sessions with their own limits are added as session resources.
+ */
+class CqlSessionService implements Service<CqlSession> {
+
+    private final String clusterName;
+    private final String name;
+    private final InjectedValue<CassandraService> cassandraService = new InjectedValue<CassandraService>();
+
+    private ConsistencyLevel consistency = LocalCqlSession.DEFAULT_CONSISTENCY;
+    private int maxConcurrentRequests = LocalCqlSession.DEFAULT_MAX_CONCURRENT_REQUESTS;
+    private long borrowTimeout = LocalCqlSession.DEFAULT_BORROW_TIMEOUT;
+    private int preparedQueryCacheSize = LocalCqlSession.DEFAULT_PREPARED_QUERY_CACHE_SIZE;
+    private int asyncThreads;
+
+    private volatile LocalCqlSession session;
+
+    CqlSessionService(String clusterName, String name) {
+        this.clusterName = clusterName;
+        this.name = name;
+    }
+
+    /**
+     * The name of the default session service of a cluster, {@code jboss.cassandra.<cluster-name>.session}
+     */
+    static ServiceName serviceName(String clusterName) {
+        return ClusterAdd.serviceName(clusterName).append("session");
+    }
+
+    /**
+     * The JNDI name the default session of a cluster is bound to, {@code java:jboss/cassandra/<cluster-name>/session}
+     */
+    static String jndiName(String clusterName) {
+        return "java:jboss/cassandra/" + clusterName + "/session";
+    }
+
+    /**
+     * Installs the default session service of a cluster and its JNDI binding.
+     */
+    static void install(OperationContext context, String clusterName, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> controllers) {
+        controllers.add(installSession(context, serviceName(clusterName), new CqlSessionService(clusterName, clusterName), verificationHandler));
+        controllers.add(installBinding(context, serviceName(clusterName), jndiName(clusterName), verificationHandler));
+    }
+
+    /**
+     * Installs a session service, depending on the service of its cluster.
+     */
+    static ServiceController<CqlSession> installSession(OperationContext context, ServiceName serviceName, CqlSessionService service, ServiceVerificationHandler verificationHandler) {
+        final ServiceBuilder<CqlSession> builder = context.getServiceTarget()
+                .addService(serviceName, service)
+                .addDependency(ClusterAdd.serviceName(service.clusterName), CassandraService.class, service.cassandraService);
+        if (!context.isBooting()) {
+            // like the cluster service, the session isn't waited for during boot
+            builder.addListener(verificationHandler);
+        }
+        return builder.install();
+    }
+
+    /**
+     * Binds a session service in JNDI. The binding stays in place while the session restarts.
+     */
+    static ServiceController<ManagedReferenceFactory> installBinding(OperationContext context, ServiceName serviceName, String jndiName, ServiceVerificationHandler verificationHandler) {
+        final ContextNames.BindInfo bindInfo = ContextNames.bindInfoFor(jndiName);
+        final BinderService binderService = new BinderService(bindInfo.getBindName());
+        final ServiceBuilder<ManagedReferenceFactory> builder = context.getServiceTarget()
+                .addService(bindInfo.getBinderServiceName(), binderService)
+                .addDependency(bindInfo.getParentContextServiceName(), ServiceBasedNamingStore.class, binderService.getNamingStoreInjector())
+                .addDependency(serviceName, CqlSession.class, new ManagedReferenceInjector<CqlSession>(binderService.getManagedObjectInjector()));
+        if (!context.isBooting()) {
+            builder.addListener(verificationHandler);
+        }
+        return builder.install();
+    }
+
+    /**
+     * Removes the default session of a cluster.
+     */
+    static void remove(OperationContext context, String clusterName) {
+        remove(context, serviceName(clusterName), jndiName(clusterName));
+    }
+
+    /**
+     * Removes a session service and its JNDI binding.
+     */
+    static void remove(OperationContext context, ServiceName serviceName, String jndiName) {
+        final ServiceName binderName = ContextNames.bindInfoFor(jndiName).getBinderServiceName();
+        final ServiceController<?> binder = context.getServiceRegistry(true).getService(binderName);
+        if (binder != null) {
+            // a binder that is still registered when the session goes away keeps the session in its unavailable
+            // dependencies and fails the removal check of the operation, so the session waits for the binder to go
+            final StabilityMonitor monitor = new StabilityMonitor();
+            monitor.addController(binder.getServiceContainer().getService(binderName));
+            context.removeService(binder);
+            try {
+                monitor.awaitStability();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                monitor.clear();
+            }
+        }
+        context.removeService(serviceName);
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        int threads = asyncThreads;
+        if (threads <= 0) {
+            // the session threads mostly wait for the read and write stages of the node, more wouldn't make progress
+            final Config config = cassandraService.getValue().getConfig();
+            threads = config.concurrent_reads + config.concurrent_writes;
+        }
+        session = new LocalCqlSession(MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "cassandra-session-" + name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        })), consistency, maxConcurrentRequests, borrowTimeout, preparedQueryCacheSize);
+        CassandraLogger.LOGGER.infof("CQL session %s of cluster %s started", name, clusterName);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        session.close();
+        session = null;
+    }
+
+    @Override
+    public CqlSession getValue() throws IllegalStateException, IllegalArgumentException {
+        final LocalCqlSession current = session;
+        if (current == null) {
+            throw new IllegalStateException(String.format("The CQL session %s isn't started", name));
+        }
+        return current;
+    }
+
+    /**
+     * The running session, {@code null} while the service is down.
+     */
+    LocalCqlSession getSession() {
+        return session;
+    }
+
+    void setConsistency(ConsistencyLevel consistency) {
+        this.consistency = consistency;
+    }
+
+    void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * How long a query waits for a permit, in milliseconds.
+     */
+    void setBorrowTimeout(long borrowTimeout) {
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    void setPreparedQueryCacheSize(int preparedQueryCacheSize) {
+        this.preparedQueryCacheSize = preparedQueryCacheSize;
+    }
+
+    /**
+     * The number of threads executing asynchronous queries, sized from the node's thread pools if not set.
+     */
+    void setAsyncThreads(int asyncThreads) {
+        this.asyncThreads = asyncThreads;
+    }
+}
@@ -29,14 +29,68 @@ import org.apache.cassandra.exceptions.ConfigurationException;
  */
 public class DMRConfigLoader implements ConfigurationLoader {
 
-    static Config CASSANDRA_CONFIG = null;
+    /**
+     * The cluster that owns the cassandra singletons of this JVM
+     */
+    private static volatile String activeCluster;
+
+    private static volatile Config activeConfig;
+
+    // set once cassandra has read the config, from then on its JVM wide statics belong to the active cluster
+    private static volatile boolean configLoaded;
+
+    /**
+     * Makes the config of a cluster the one handed to cassandra. The first cluster to be activated owns cassandra
+     * for the life of the JVM: cassandra never tears down its statics ({@code DatabaseDescriptor}, {@code StorageService},
+     * {@code Schema}), so another cluster would start on the config, directories and ring state of the first one.
+     *
+     * @return false if another cluster owns cassandra
+     */
+    static synchronized boolean activate(String clusterName, Config config) {
+        if (activeCluster != null && !activeCluster.equals(clusterName)) {
+            return false;
+        }
+        activeCluster = clusterName;
+        activeConfig = config;
+        return true;
+    }
+
+    /**
+     * Gives up the ownership of a cluster whose start failed, unless cassandra has already read its config.
+     */
+    static synchronized void release(String clusterName) {
+        if (!configLoaded && clusterName.equals(activeCluster)) {
+            activeCluster = null;
+            activeConfig = null;
+        }
+    }
+
+    /**
+     * @return the cluster owning cassandra, or {@code null} if no cluster has been activated
+     */
+    static String getActiveCluster() {
+        return activeCluster;
+    }
+
+    /**
+     * Forgets the active cluster. Only for tests, cassandra must not have been initialized.
+     */
+    static synchronized void reset() {
+        activeCluster = null;
+        activeConfig = null;
+        configLoaded = false;
+    }
 
     @Override
     public Config loadConfig() throws ConfigurationException {
-        if(null==CASSANDRA_CONFIG)
-            throw new IllegalStateException("Cassandra config not initialized");
+        synchronized (DMRConfigLoader.class) {
+            Config config = activeConfig;
+            if(null==config)
+                throw new IllegalStateException("Cassandra config not initialized");
 
-        return CASSANDRA_CONFIG;
+            configLoaded = true;
+            return config;
+        }
     }
 
     /*private Config loadFromConfigFile() throws ConfigurationException {
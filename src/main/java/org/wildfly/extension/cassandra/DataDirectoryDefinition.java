@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A data directory of the cluster. Cassandra spreads the SSTables over all of them (JBOD),
+ * so each directory should be on a separate disk. The directories are read into the DatabaseDescriptor once per JVM,
+ * changing one requires a restart of the server.
+ */
+public class DataDirectoryDefinition extends PersistentResourceDefinition {
+
+    static final SimpleAttributeDefinition PATH =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PATH, ModelType.STRING, false)
+                    .setAllowExpression(true)
+                    .setValidator(new StringLengthValidator(1, false, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final SimpleAttributeDefinition RELATIVE_TO =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.RELATIVE_TO, ModelType.STRING, true)
+                    .setAllowExpression(false)
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {PATH, RELATIVE_TO};
+
+    // ----------- runtime metrics
+
+    static final SimpleAttributeDefinition BYTES_USED = bytes(CassandraModel.BYTES_USED);
+    static final SimpleAttributeDefinition FREE_SPACE = bytes(CassandraModel.FREE_SPACE);
+
+    static final SimpleAttributeDefinition SSTABLE_COUNT =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.SSTABLE_COUNT, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final DataDirectoryDefinition INSTANCE = new DataDirectoryDefinition();
+
+    private DataDirectoryDefinition() {
+        super(CassandraExtension.DATA_DIRECTORY_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.DATA_DIRECTORY),
+                new ClusterTuningAdd(ATTRIBUTES),
+                ClusterTuningRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        RestartRequiredWriteAttributeHandler handler = new RestartRequiredWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+        }
+        resourceRegistration.registerMetric(BYTES_USED, DataDirectoryMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(FREE_SPACE, DataDirectoryMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(SSTABLE_COUNT, DataDirectoryMetricsHandler.INSTANCE);
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+
+    private static SimpleAttributeDefinition bytes(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.BYTES)
+                .setStorageRuntime()
+                .build();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.io.sstable.Descriptor;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Reads the disk usage of a data directory. Plain file system access, only the sstable file names are parsed the way
+ * cassandra does. The directory is walked once per operation, a read-resource takes all its metrics from the same walk.
+ */
+class DataDirectoryMetricsHandler extends ClusterRuntimeHandler {
+
+    static final DataDirectoryMetricsHandler INSTANCE = new DataDirectoryMetricsHandler();
+
+    private static final OperationContext.AttachmentKey<Map<File, DiskUsage>> DISK_USAGE =
+            OperationContext.AttachmentKey.<Map<File, DiskUsage>>create(Map.class);
+
+    private DataDirectoryMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final String directoryName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final File directory = service.getDataDirectory(directoryName);
+        if (directory == null || !directory.isDirectory()) {
+            // added after the service started, not in use yet
+            return;
+        }
+
+        final DiskUsage usage = diskUsage(context, directory);
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (CassandraModel.FREE_SPACE.equals(attributeName)) {
+            result.set(usage.free);
+        } else if (CassandraModel.BYTES_USED.equals(attributeName)) {
+            result.set(usage.bytes);
+        } else if (CassandraModel.SSTABLE_COUNT.equals(attributeName)) {
+            result.set(usage.sstables);
+        }
+    }
+
+    private static DiskUsage diskUsage(OperationContext context, File directory) throws OperationFailedException {
+        Map<File, DiskUsage> usages = context.getAttachment(DISK_USAGE);
+        if (usages == null) {
+            usages = new HashMap<File, DiskUsage>();
+            context.attach(DISK_USAGE, usages);
+        }
+        DiskUsage usage = usages.get(directory);
+        if (usage == null) {
+            try {
+                usage = DiskUsage.read(directory);
+            } catch (IOException e) {
+                throw new OperationFailedException("Failed to read the disk usage of " + directory + ": " + e.getMessage());
+            }
+            usages.put(directory, usage);
+        }
+        return usage;
+    }
+
+    /**
+     * Sums up the files of a data directory, sstables are identified by their data component.
+     * Snapshots and incremental backups take disk space but are not live sstables, neither are the temporary
+     * sstables of flushes and compactions in progress.
+     */
+    static class DiskUsage extends SimpleFileVisitor<Path> {
+
+        long bytes;
+        long free;
+        int sstables;
+        private int inactive;
+
+        static DiskUsage read(File directory) throws IOException {
+            DiskUsage usage = new DiskUsage();
+            usage.free = directory.getUsableSpace();
+            Files.walkFileTree(directory.toPath(), usage);
+            return usage;
+        }
+
+        static boolean isLiveSSTable(File directory, String fileName) {
+            if (!fileName.endsWith("-Data.db")) {
+                return false;
+            }
+            try {
+                return !Descriptor.fromFilename(directory, fileName).left.type.isTemporary;
+            } catch (RuntimeException e) {
+                // not named like an sstable
+                return false;
+            }
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+            if ("snapshots".equals(name) || "backups".equals(name)) {
+                inactive++;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            bytes += attrs.size();
+            if (inactive == 0 && isLiveSSTable(file.getParent().toFile(), file.getFileName().toString())) {
+                sstables++;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException e) {
+            // sstables are removed concurrently by compaction
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+            String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+            if ("snapshots".equals(name) || "backups".equals(name)) {
+                inactive--;
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.config.Config;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Measures the throughput of the commit log and data directories of a running node.
+ */
+class DiskBenchmarkHandler extends ClusterRuntimeHandler {
+
+    static final SimpleAttributeDefinition FILE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.FILE_SIZE, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(256L))
+                    .setValidator(new LongRangeValidator(1, 1024, true, true))
+                    .build();
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.RUN_DISK_BENCHMARK, CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER))
+                    .setParameters(FILE_SIZE)
+                    .setReplyType(ModelType.LIST)
+                    .setReplyValueType(ModelType.OBJECT)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final DiskBenchmarkHandler INSTANCE = new DiskBenchmarkHandler();
+
+    private DiskBenchmarkHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final long fileSize = FILE_SIZE.resolveModelAttribute(context, operation).asLong() * 1024 * 1024;
+        if (service == null) {
+            // the directories are resolved when the service starts
+            throw notRunning(operation);
+        }
+
+        final Config config = service.getConfig();
+        final ModelNode result = context.getResult();
+        result.setEmptyList();
+        result.add(benchmark(config.commitlog_directory, CassandraModel.COMMIT_LOG, fileSize));
+        for (String dataFileDirectory : config.data_file_directories) {
+            result.add(benchmark(dataFileDirectory, CassandraModel.DATA_DIRECTORY, fileSize));
+        }
+    }
+
+    private static ModelNode benchmark(String directory, String type, long fileSize) throws OperationFailedException {
+        try {
+            ModelNode result = new ModelNode();
+            result.get(CassandraModel.DIRECTORY).set(directory);
+            result.get(CassandraModel.DIRECTORY_TYPE).set(type);
+            result.get(CassandraModel.FILE_SYSTEM).set(Disks.fileStore(directory).name());
+            for (Property throughput : Disks.benchmark(new File(directory), fileSize).asPropertyList()) {
+                result.get(throughput.getName()).set(throughput.getValue());
+            }
+            CassandraLogger.LOGGER.infof("Disk benchmark of %s: %s", directory, result);
+            return result;
+        } catch (IOException e) {
+            throw new OperationFailedException("Disk benchmark of " + directory + " failed: " + e.getMessage());
+        }
+    }
+}
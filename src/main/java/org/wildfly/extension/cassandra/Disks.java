@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.utils.CLibrary;
+import org.jboss.dmr.ModelNode;
+
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Inspects the disks backing the directories of a node. Local file access only.
+ */
+final class Disks {
+
+    private static final int WRITE_BLOCK_SIZE = 1024 * 1024;
+
+    // the page size sstable reads typically touch
+    private static final int READ_BLOCK_SIZE = 4 * 1024;
+
+    private static final int MAX_RANDOM_READS = 10000;
+
+    // bounds the read phase on slow disks, the operation blocks a management thread
+    private static final long MAX_RANDOM_READ_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private static final double MB = 1024 * 1024;
+
+    private Disks() {
+    }
+
+    /**
+     * The file store of a path, which doesn't need to exist yet.
+     */
+    static FileStore fileStore(String path) throws IOException {
+        Path existing = Paths.get(path).toAbsolutePath();
+        while (existing != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        if (existing == null) {
+            throw new IOException("No existing parent of " + path);
+        }
+        return Files.getFileStore(existing);
+    }
+
+    /**
+     * Writes a temporary file of the given size to the directory, evicts it from the page cache and reads random blocks back.
+     * The reads hit the disk only if the file could be evicted or is larger than the physical memory. Otherwise the
+     * random read throughput isn't measured and {@code page-cache-evicted} is {@code false}.
+     *
+     * @return the throughput, see {@code run-disk-benchmark}
+     */
+    static ModelNode benchmark(File directory, long fileSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+
+        final ModelNode result = new ModelNode();
+        final Random random = new Random();
+        final File file = File.createTempFile("disk-benchmark", ".tmp", directory);
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ, WRITE)) {
+            byte[] bytes = new byte[WRITE_BLOCK_SIZE];
+            random.nextBytes(bytes);
+            ByteBuffer block = ByteBuffer.allocateDirect(WRITE_BLOCK_SIZE);
+            block.put(bytes);
+
+            // sequential appends, like the commit log
+            long start = System.nanoTime();
+            long written = 0;
+            while (written < fileSize) {
+                block.clear();
+                written += channel.write(block);
+            }
+            channel.force(true);
+            double writeSeconds = (System.nanoTime() - start) / 1e9;
+            result.get(CassandraModel.SEQUENTIAL_WRITE).set(written / MB / writeSeconds);
+
+            final boolean evicted = evict(file);
+            result.get(CassandraModel.PAGE_CACHE_EVICTED).set(evicted);
+            if (!evicted && written <= physicalMemory()) {
+                // the reads would be served from memory
+                return result;
+            }
+
+            // random reads, like sstable lookups
+            ByteBuffer page = ByteBuffer.allocateDirect(READ_BLOCK_SIZE);
+            long blocks = written / READ_BLOCK_SIZE;
+            int reads = 0;
+            start = System.nanoTime();
+            final long deadline = start + MAX_RANDOM_READ_NANOS;
+            while (reads < MAX_RANDOM_READS && reads < blocks && System.nanoTime() < deadline) {
+                page.clear();
+                channel.read(page, (long) (random.nextDouble() * blocks) * READ_BLOCK_SIZE);
+                reads++;
+            }
+            double readSeconds = (System.nanoTime() - start) / 1e9;
+            result.get(CassandraModel.RANDOM_READ).set((double) reads * READ_BLOCK_SIZE / MB / readSeconds);
+            result.get(CassandraModel.RANDOM_READS_PER_SECOND).set((long) (reads / readSeconds));
+        } finally {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the (already synced) pages of a file from the page cache. Needs JNA and posix_fadvise, i.e. Linux.
+     *
+     * @return whether the pages have been dropped
+     */
+    private static boolean evict(File file) {
+        if (!System.getProperty("os.name", "").toLowerCase(Locale.ENGLISH).contains("linux")) {
+            return false;
+        }
+        try {
+            if (!CLibrary.jnaAvailable()) {
+                return false;
+            }
+            CLibrary.trySkipCache(file.getPath(), 0, 0);
+            return true;
+        } catch (AssertionError | LinkageError e) {
+            // CLibrary fails to initialize if the JVM hides the file descriptor of a channel
+            CassandraLogger.LOGGER.debugf(e, "Failed to evict %s from the page cache", file);
+            return false;
+        }
+    }
+
+    /**
+     * @return the physical memory of the host, or {@link Long#MAX_VALUE} if the JVM doesn't expose it
+     */
+    static long physicalMemory() {
+        try {
+            Object size = ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(new ObjectName(ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME), "TotalPhysicalMemorySize");
+            return size instanceof Long ? (Long) size : Long.MAX_VALUE;
+        } catch (Exception e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
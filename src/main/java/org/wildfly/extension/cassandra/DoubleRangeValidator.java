@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Validates that a {@link ModelType#DOUBLE} parameter lies within a range, like {@code IntRangeValidator} does for integers.
+ */
+class DoubleRangeValidator extends ModelTypeValidator {
+
+    private final double min;
+    private final boolean minInclusive;
+    private final double max;
+
+    /**
+     * @param min the lower bound
+     * @param minInclusive whether the lower bound itself is valid
+     * @param max the inclusive upper bound
+     */
+    DoubleRangeValidator(double min, boolean minInclusive, double max, boolean nullable, boolean allowExpressions) {
+        super(ModelType.DOUBLE, nullable, allowExpressions);
+        this.min = min;
+        this.minInclusive = minInclusive;
+        this.max = max;
+    }
+
+    @Override
+    public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+        super.validateParameter(parameterName, value);
+        if (value.isDefined() && value.getType() != ModelType.EXPRESSION) {
+            final double number = value.asDouble();
+            if (number < min || (!minInclusive && number == min) || number > max) {
+                throw new OperationFailedException(String.format("%s is an invalid value for parameter %s. It must be in %s%s, %s]",
+                        value.asString(), parameterName, minInclusive ? "[" : "(", min, max));
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+
+/**
+ * Runtime resource for a keyspace of the running node. The resources are populated from the live node
+ * by {@link ClusterResource}, their tables by {@link KeyspaceResource}.
+ */
+public class KeyspaceDefinition extends SimpleResourceDefinition {
+
+    static final KeyspaceDefinition INSTANCE = new KeyspaceDefinition();
+
+    private KeyspaceDefinition() {
+        super(CassandraExtension.KEYSPACE_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.KEYSPACE));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        // the local latencies of the keyspace
+        for (AttributeDefinition attr : ClusterDefinition.LATENCY_METRICS) {
+            resourceRegistration.registerMetric(attr, LatencyMetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public void registerChildren(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerSubModel(TableDefinition.INSTANCE).setRuntimeOnly(true);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.PlaceholderResource;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Runtime resource for a keyspace of the running node. The {@code table=*} children are populated
+ * from the live node, like the keyspaces of a {@link ClusterResource}.
+ */
+class KeyspaceResource implements Resource.ResourceEntry {
+
+    private final PathElement pathElement;
+
+    KeyspaceResource(String keyspace) {
+        this.pathElement = PathElement.pathElement(CassandraModel.KEYSPACE, keyspace);
+    }
+
+    @Override
+    public String getName() {
+        return pathElement.getValue();
+    }
+
+    @Override
+    public PathElement getPathElement() {
+        return pathElement;
+    }
+
+    @Override
+    public ModelNode getModel() {
+        return new ModelNode();
+    }
+
+    @Override
+    public void writeModel(ModelNode newModel) {
+        throw new IllegalStateException("Keyspace resources are read from the running node and have no model to write");
+    }
+
+    @Override
+    public boolean isModelDefined() {
+        return false;
+    }
+
+    @Override
+    public boolean hasChild(PathElement element) {
+        return CassandraModel.TABLE.equals(element.getKey()) && tables().contains(element.getValue());
+    }
+
+    @Override
+    public Resource getChild(PathElement element) {
+        return hasChild(element) ? PlaceholderResource.INSTANCE : null;
+    }
+
+    @Override
+    public Resource requireChild(PathElement element) {
+        if (hasChild(element)) {
+            return PlaceholderResource.INSTANCE;
+        }
+        throw new NoSuchResourceException(element);
+    }
+
+    @Override
+    public boolean hasChildren(String childType) {
+        return CassandraModel.TABLE.equals(childType) && !tables().isEmpty();
+    }
+
+    @Override
+    public Resource navigate(PathAddress address) {
+        return Tools.navigate(this, address);
+    }
+
+    @Override
+    public Set<String> getChildTypes() {
+        return Collections.singleton(CassandraModel.TABLE);
+    }
+
+    @Override
+    public Set<String> getChildrenNames(String childType) {
+        if (CassandraModel.TABLE.equals(childType)) {
+            return tables();
+        }
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<ResourceEntry> getChildren(String childType) {
+        if (!CassandraModel.TABLE.equals(childType)) {
+            return Collections.emptySet();
+        }
+        Set<ResourceEntry> result = new LinkedHashSet<ResourceEntry>();
+        for (String table : tables()) {
+            result.add(new PlaceholderResource.PlaceholderResourceEntry(PathElement.pathElement(CassandraModel.TABLE, table)));
+        }
+        return result;
+    }
+
+    @Override
+    public void registerChild(PathElement address, Resource resource) {
+        throw new IllegalStateException("Table resources are read from the running node and cannot be registered");
+    }
+
+    @Override
+    public Resource removeChild(PathElement address) {
+        throw new IllegalStateException("Table resources are read from the running node and cannot be removed");
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return true;
+    }
+
+    @Override
+    public boolean isProxy() {
+        return false;
+    }
+
+    @Override
+    public Resource clone() {
+        return new KeyspaceResource(getName());
+    }
+
+    private Set<String> tables() {
+        return CassandraMetrics.tables(getName());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+
+import javax.management.ObjectName;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Reads the latency histograms of the running node.
+ * On the cluster these are the coordinator latencies, on a keyspace or table the local latencies of that keyspace or table.
+ */
+class LatencyMetricsHandler extends ClusterRuntimeHandler {
+
+    static final LatencyMetricsHandler INSTANCE = new LatencyMetricsHandler();
+
+    private LatencyMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        final String attributeName = operation.require(NAME).asString();
+        CassandraMetrics.readLatency(timer(address, attributeName), context.getResult());
+    }
+
+    private static ObjectName timer(PathAddress address, String attributeName) {
+        final PathElement element = address.getLastElement();
+        if (CassandraModel.TABLE.equals(element.getKey())) {
+            final String keyspace = address.getElement(address.size() - 2).getValue();
+            return CassandraMetrics.table(keyspace, element.getValue(), keyspaceMetric(attributeName));
+        }
+        if (CassandraModel.KEYSPACE.equals(element.getKey())) {
+            return CassandraMetrics.metric("type=Keyspace,keyspace=" + element.getValue() + ",name=" + keyspaceMetric(attributeName));
+        }
+        return CassandraMetrics.metric("type=ClientRequest,scope=" + clientRequestScope(attributeName) + ",name=Latency");
+    }
+
+    private static String clientRequestScope(String attributeName) {
+        if (CassandraModel.READ_LATENCY.equals(attributeName)) {
+            return "Read";
+        } else if (CassandraModel.WRITE_LATENCY.equals(attributeName)) {
+            return "Write";
+        } else if (CassandraModel.RANGE_LATENCY.equals(attributeName)) {
+            return "RangeSlice";
+        }
+        throw new IllegalArgumentException(attributeName);
+    }
+
+    private static String keyspaceMetric(String attributeName) {
+        if (CassandraModel.READ_LATENCY.equals(attributeName)) {
+            return "ReadLatency";
+        } else if (CassandraModel.WRITE_LATENCY.equals(attributeName)) {
+            return "WriteLatency";
+        } else if (CassandraModel.RANGE_LATENCY.equals(attributeName)) {
+            return "RangeLatency";
+        }
+        throw new IllegalArgumentException(attributeName);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.service.CacheService;
+import org.apache.cassandra.service.StorageProxy;
+import org.apache.cassandra.service.StorageService;
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Applies the settings cassandra can change at runtime to the running node, instead of restarting it
+ * (and dropping its caches, memtables and gossip state). Attributes are classified as live by
+ * the {@link AttributeAccess.Flag#RESTART_NONE} flag of their definition.
+ * <p/>
+ * A value that can't be applied live requires a restart of the server: cassandra reads its config into JVM wide statics
+ * once, so neither a reload nor a restart of the cluster service would pick it up. That includes writes while the node
+ * is starting, as the config it starts with has already been created.
+ */
+class LiveWriteAttributeHandler extends AbstractWriteAttributeHandler<Boolean> {
+
+    LiveWriteAttributeHandler(AttributeDefinition... attributeDefinitions) {
+        super(attributeDefinitions);
+    }
+
+    static boolean isLive(AttributeDefinition attribute) {
+        return attribute.getFlags().contains(AttributeAccess.Flag.RESTART_NONE);
+    }
+
+    /**
+     * The handback is {@code true} if a restart is required, {@code false} if the value has been applied live
+     * and {@code null} if the node hasn't been initialized and picks the value up when it starts.
+     */
+    @Override
+    protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Boolean> handbackHolder) throws OperationFailedException {
+        if (isRunning(context, operation) && apply(attributeName, value(attributeName, resolvedValue))) {
+            handbackHolder.setHandback(Boolean.FALSE);
+        } else if (DMRConfigLoader.getActiveCluster() != null) {
+            context.restartRequired();
+            handbackHolder.setHandback(Boolean.TRUE);
+        }
+        // otherwise picked up by ClusterAdd when the node starts
+        return false;
+    }
+
+    @Override
+    protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Boolean restartRequired) throws OperationFailedException {
+        if (Boolean.TRUE.equals(restartRequired)) {
+            context.revertRestartRequired();
+        } else if (Boolean.FALSE.equals(restartRequired)) {
+            apply(attributeName, value(attributeName, valueToRestore));
+        }
+    }
+
+    private static boolean isRunning(OperationContext context, ModelNode operation) {
+        return ClusterRuntimeHandler.getRunningService(context, PathAddress.pathAddress(operation.require(OP_ADDR))) != null;
+    }
+
+    private ModelNode value(String attributeName, ModelNode value) {
+        if (value.isDefined()) {
+            return value;
+        }
+        ModelNode defaultValue = getAttributeDefinition(attributeName).getDefaultValue();
+        return defaultValue != null ? defaultValue : new ModelNode();
+    }
+
+    /**
+     * @return false if the value can't be applied to the running node and requires a restart
+     */
+    private static boolean apply(String attributeName, ModelNode value) {
+        if (!value.isDefined()) {
+            // the default is computed by cassandra on startup
+            return false;
+        }
+
+        if (CassandraModel.HINTED_HANDOFF_ENABLED.equals(attributeName)) {
+            StorageProxy.instance.setHintedHandoffEnabled(value.asBoolean());
+        } else if (CassandraModel.COMPACTION_THROUGHPUT.equals(attributeName)) {
+            StorageService.instance.setCompactionThroughputMbPerSec(value.asInt());
+        } else if (CassandraModel.CONCURRENT_COMPACTORS.equals(attributeName)) {
+            SetConcurrentCompactorsHandler.setConcurrentCompactors(value.asInt());
+        } else if (CassandraModel.READ_REQUEST_TIMEOUT.equals(attributeName)) {
+            StorageProxy.instance.setReadRpcTimeout(value.asLong());
+        } else if (CassandraModel.WRITE_REQUEST_TIMEOUT.equals(attributeName)) {
+            StorageProxy.instance.setWriteRpcTimeout(value.asLong());
+        } else if (CassandraModel.RANGE_REQUEST_TIMEOUT.equals(attributeName)) {
+            StorageProxy.instance.setRangeRpcTimeout(value.asLong());
+        } else if (CassandraModel.REQUEST_TIMEOUT.equals(attributeName)) {
+            StorageProxy.instance.setRpcTimeout(value.asLong());
+        } else if (CassandraModel.TRACE_PROBABILITY.equals(attributeName)) {
+            StorageService.instance.setTraceProbability(value.asDouble());
+        } else if (CassandraModel.KEY_CACHE_SIZE.equals(attributeName)) {
+            CacheService.instance.setKeyCacheCapacityInMB(value.asLong());
+        } else if (CassandraModel.KEY_CACHE_SAVE_PERIOD.equals(attributeName)) {
+            CacheService.instance.setKeyCacheSavePeriodInSeconds(value.asInt());
+        } else if (CassandraModel.ROW_CACHE_SIZE.equals(attributeName)) {
+            CacheService.instance.setRowCacheCapacityInMB(value.asLong());
+        } else if (CassandraModel.ROW_CACHE_SAVE_PERIOD.equals(attributeName)) {
+            CacheService.instance.setRowCacheSavePeriodInSeconds(value.asInt());
+        } else if (CassandraModel.COUNTER_CACHE_SIZE.equals(attributeName)) {
+            CacheService.instance.setCounterCacheCapacityInMB(value.asLong());
+        } else if (CassandraModel.COUNTER_CACHE_SAVE_PERIOD.equals(attributeName)) {
+            CacheService.instance.setCounterCacheSavePeriodInSeconds(value.asInt());
+        } else {
+            throw new IllegalArgumentException(attributeName);
+        }
+        CassandraLogger.LOGGER.infof("Applied %s=%s to the running node", attributeName, value);
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import org.apache.cassandra.cql3.QueryProcessor;
+import org.apache.cassandra.cql3.UntypedResultSet;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.exceptions.CassandraException;
+import org.apache.cassandra.exceptions.OverloadedException;
+import org.apache.cassandra.exceptions.RequestValidationException;
+import org.apache.cassandra.service.ClientState;
+import org.apache.cassandra.service.QueryState;
+import org.apache.cassandra.utils.MD5Digest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link CqlSession} implementation. Queries are handed to the {@link QueryProcessor} of the node directly.
+ * At most {@code maxConcurrentRequests} queries execute or are queued for asynchronous execution at the same time,
+ * further requests wait up to {@code borrowTimeout} milliseconds for a permit, see {@link SessionPermits}.
+ */
+class LocalCqlSession implements CqlSession {
+
+    static final ConsistencyLevel DEFAULT_CONSISTENCY = ConsistencyLevel.LOCAL_ONE;
+    static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 1024;
+    static final long DEFAULT_BORROW_TIMEOUT = 10000;
+    static final int DEFAULT_PREPARED_QUERY_CACHE_SIZE = 1000;
+
+    private final ClientState clientState = ClientState.forInternalCalls();
+    private final ListeningExecutorService executor;
+    private final ConsistencyLevel consistency;
+    private final SessionPermits permits;
+    private final ConcurrentMap<String, PreparedQuery> preparedQueries;
+
+    LocalCqlSession(ListeningExecutorService executor, ConsistencyLevel consistency, int maxConcurrentRequests, long borrowTimeout, int preparedQueryCacheSize) {
+        this.executor = executor;
+        this.consistency = consistency;
+        this.permits = new SessionPermits(maxConcurrentRequests, borrowTimeout);
+        this.preparedQueries = new ConcurrentLinkedHashMap.Builder<String, PreparedQuery>()
+                .maximumWeightedCapacity(preparedQueryCacheSize)
+                .build();
+    }
+
+    @Override
+    public PreparedQuery prepare(String query) throws RequestValidationException {
+        return new PreparedQuery(this, query, prepareStatement(query));
+    }
+
+    @Override
+    public UntypedResultSet execute(String query, Object... values) throws CassandraException {
+        return preparedQuery(query).execute(values);
+    }
+
+    @Override
+    public ListenableFuture<UntypedResultSet> executeAsync(String query, Object... values) {
+        final PreparedQuery prepared;
+        try {
+            prepared = preparedQuery(query);
+        } catch (RequestValidationException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        return prepared.executeAsync(values);
+    }
+
+    private PreparedQuery preparedQuery(String query) throws RequestValidationException {
+        PreparedQuery prepared = preparedQueries.get(query);
+        if (prepared == null) {
+            prepared = prepare(query);
+            preparedQueries.put(query, prepared);
+        }
+        return prepared;
+    }
+
+    MD5Digest prepareStatement(String query) throws RequestValidationException {
+        return QueryProcessor.instance.prepare(query, queryState()).statementId;
+    }
+
+    QueryState queryState() {
+        return new QueryState(clientState);
+    }
+
+    ConsistencyLevel consistency() {
+        return consistency;
+    }
+
+    /**
+     * Waits for a permit to execute a query, see {@link SessionPermits#acquire()}. Must be followed by {@link #release()}.
+     */
+    void acquire() throws OverloadedException {
+        permits.acquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    /**
+     * Executes a query on the session's executor, holding a permit acquired before it is queued.
+     */
+    ListenableFuture<UntypedResultSet> executeAsync(Callable<UntypedResultSet> query) {
+        return permits.submit(executor, query);
+    }
+
+    int getInFlightRequests() {
+        return permits.getInFlightRequests();
+    }
+
+    long getRequests() {
+        return permits.getRequests();
+    }
+
+    long getAverageBorrowWaitTime(TimeUnit unit) {
+        return permits.getAverageBorrowWaitTime(unit);
+    }
+
+    long getMaxBorrowWaitTime(TimeUnit unit) {
+        return permits.getMaxBorrowWaitTime(unit);
+    }
+
+    int getPreparedQueries() {
+        return preparedQueries.size();
+    }
+
+    void close() {
+        preparedQueries.clear();
+        executor.shutdown();
+    }
+}
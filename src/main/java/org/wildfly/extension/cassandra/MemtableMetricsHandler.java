@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Reads the memtable memory usage of the running node. On the cluster summed over all tables, on a table the usage of that table.
+ */
+class MemtableMetricsHandler extends ClusterRuntimeHandler {
+
+    static final MemtableMetricsHandler INSTANCE = new MemtableMetricsHandler();
+
+    private MemtableMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final String attributeName = operation.require(NAME).asString();
+        final String metric;
+        if (CassandraModel.MEMTABLE_ON_HEAP_SIZE.equals(attributeName)) {
+            metric = "MemtableOnHeapSize";
+        } else if (CassandraModel.MEMTABLE_OFF_HEAP_SIZE.equals(attributeName)) {
+            metric = "MemtableOffHeapSize";
+        } else {
+            return;
+        }
+
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        final PathElement element = address.getLastElement();
+        if (CassandraModel.TABLE.equals(element.getKey())) {
+            final String keyspace = address.getElement(address.size() - 2).getValue();
+            context.getResult().set(CassandraMetrics.read(CassandraMetrics.table(keyspace, element.getValue(), metric), CassandraMetrics.VALUE));
+        } else {
+            context.getResult().set(CassandraMetrics.sum("type=ColumnFamily,name=" + metric + ",*", CassandraMetrics.VALUE));
+        }
+    }
+}
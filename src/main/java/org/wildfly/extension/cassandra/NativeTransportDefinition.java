@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Limits of the native (CQL) transport. Whether it is started and its port are configured on the cluster.
+ * The limits are read once per JVM, into the DatabaseDescriptor and the request executor, changes require a restart of the server.
+ */
+public class NativeTransportDefinition extends PersistentResourceDefinition {
+
+    static final SimpleAttributeDefinition MAX_THREADS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.NATIVE_TRANSPORT_MAX_THREADS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(128))
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final SimpleAttributeDefinition MAX_FRAME_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.NATIVE_TRANSPORT_MAX_FRAME_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(256))
+                    .setMeasurementUnit(MeasurementUnit.MEGABYTES)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: the number of connections is not limited
+    static final SimpleAttributeDefinition MAX_CONCURRENT_CONNECTIONS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.NATIVE_TRANSPORT_MAX_CONCURRENT_CONNECTIONS, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    // no default: the number of connections is not limited
+    static final SimpleAttributeDefinition MAX_CONCURRENT_CONNECTIONS_PER_IP =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.NATIVE_TRANSPORT_MAX_CONCURRENT_CONNECTIONS_PER_IP, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {
+            MAX_THREADS, MAX_FRAME_SIZE, MAX_CONCURRENT_CONNECTIONS, MAX_CONCURRENT_CONNECTIONS_PER_IP
+    };
+
+    static final NativeTransportDefinition INSTANCE = new NativeTransportDefinition();
+
+    private NativeTransportDefinition() {
+        super(CassandraExtension.NATIVE_TRANSPORT_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.NATIVE_TRANSPORT),
+                new ClusterTuningAdd(ATTRIBUTES),
+                ClusterTuningRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        RestartRequiredWriteAttributeHandler handler = new RestartRequiredWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+}
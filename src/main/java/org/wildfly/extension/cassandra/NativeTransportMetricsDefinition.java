@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Read-only runtime resource exposing the clients and the request queue of the native transport.
+ */
+public class NativeTransportMetricsDefinition extends SimpleResourceDefinition {
+
+    static final SimpleAttributeDefinition CONNECTED_CLIENTS = counter(CassandraModel.CONNECTED_CLIENTS);
+    static final SimpleAttributeDefinition ACTIVE_REQUESTS = counter(CassandraModel.ACTIVE_REQUESTS);
+    static final SimpleAttributeDefinition PENDING_REQUESTS = counter(CassandraModel.PENDING_REQUESTS);
+    static final SimpleAttributeDefinition BLOCKED_REQUESTS = counter(CassandraModel.BLOCKED_REQUESTS);
+
+    static final NativeTransportMetricsDefinition INSTANCE = new NativeTransportMetricsDefinition();
+
+    private NativeTransportMetricsDefinition() {
+        super(CassandraExtension.NATIVE_TRANSPORT_METRICS_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.RUNTIME_METRICS, CassandraModel.NATIVE_TRANSPORT));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        resourceRegistration.registerMetric(CONNECTED_CLIENTS, NativeTransportMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(ACTIVE_REQUESTS, NativeTransportMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(PENDING_REQUESTS, NativeTransportMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(BLOCKED_REQUESTS, NativeTransportMetricsHandler.INSTANCE);
+    }
+
+    private static SimpleAttributeDefinition counter(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+}
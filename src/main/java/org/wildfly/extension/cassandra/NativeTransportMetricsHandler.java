@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+/**
+ * Reads the connected clients and the request executor of the native transport from the metric registry.
+ */
+class NativeTransportMetricsHandler extends ClusterRuntimeHandler {
+
+    static final NativeTransportMetricsHandler INSTANCE = new NativeTransportMetricsHandler();
+
+    // requests are decoded by the netty event loops and executed by this pool
+    private static final String REQUEST_POOL = "type=ThreadPools,path=transport,scope=Native-Transport-Requests,name=";
+
+    private NativeTransportMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (CassandraModel.CONNECTED_CLIENTS.equals(attributeName)) {
+            result.set(CassandraMetrics.read("type=Client,name=connectedNativeClients", CassandraMetrics.VALUE));
+        } else if (CassandraModel.ACTIVE_REQUESTS.equals(attributeName)) {
+            result.set(CassandraMetrics.read(REQUEST_POOL + "ActiveTasks", CassandraMetrics.VALUE));
+        } else if (CassandraModel.PENDING_REQUESTS.equals(attributeName)) {
+            result.set(CassandraMetrics.read(REQUEST_POOL + "PendingTasks", CassandraMetrics.VALUE));
+        } else if (CassandraModel.BLOCKED_REQUESTS.equals(attributeName)) {
+            result.set(CassandraMetrics.read(REQUEST_POOL + "CurrentlyBlockedTasks", CassandraMetrics.COUNT));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.cassandra.cql3.QueryOptions;
+import org.apache.cassandra.cql3.QueryProcessor;
+import org.apache.cassandra.cql3.UntypedResultSet;
+import org.apache.cassandra.cql3.statements.ParsedStatement;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.db.marshal.AbstractType;
+import org.apache.cassandra.exceptions.CassandraException;
+import org.apache.cassandra.exceptions.InvalidRequestException;
+import org.apache.cassandra.exceptions.RequestValidationException;
+import org.apache.cassandra.transport.messages.ResultMessage;
+import org.apache.cassandra.utils.MD5Digest;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * A query prepared by a {@link CqlSession}. Bind values are either {@link ByteBuffer}s or the java types of the
+ * bound columns ({@code String} for text, {@code Integer} for int, {@code java.util.UUID} for uuid, etc.).
+ * <p>
+ * Queries run at the consistency level of the session unless one is given. It is {@link ConsistencyLevel#LOCAL_ONE}
+ * by default, which lets reads be served by the local replica.
+ */
+public final class PreparedQuery {
+
+    private static final UntypedResultSet NO_ROWS = UntypedResultSet.create(Collections.<Map<String, ByteBuffer>>emptyList());
+
+    private final LocalCqlSession session;
+    private final String query;
+    private volatile MD5Digest statementId;
+
+    PreparedQuery(LocalCqlSession session, String query, MD5Digest statementId) {
+        this.session = session;
+        this.query = query;
+        this.statementId = statementId;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public UntypedResultSet execute(Object... values) throws CassandraException {
+        return execute(session.consistency(), values);
+    }
+
+    public UntypedResultSet execute(ConsistencyLevel consistency, Object... values) throws CassandraException {
+        session.acquire();
+        try {
+            return process(consistency, values);
+        } finally {
+            session.release();
+        }
+    }
+
+    public ListenableFuture<UntypedResultSet> executeAsync(Object... values) {
+        return executeAsync(session.consistency(), values);
+    }
+
+    public ListenableFuture<UntypedResultSet> executeAsync(final ConsistencyLevel consistency, final Object... values) {
+        return session.executeAsync(new Callable<UntypedResultSet>() {
+            @Override
+            public UntypedResultSet call() throws Exception {
+                return process(consistency, values);
+            }
+        });
+    }
+
+    // the caller holds a permit of the session
+    private UntypedResultSet process(ConsistencyLevel consistency, Object... values) throws CassandraException {
+        final ParsedStatement.Prepared prepared = statement();
+        final QueryOptions options = QueryOptions.forInternalCalls(consistency, bind(prepared, values));
+        final ResultMessage result = QueryProcessor.instance.processStatement(prepared.statement, session.queryState(), options);
+        if (result instanceof ResultMessage.Rows) {
+            return UntypedResultSet.create(((ResultMessage.Rows) result).result);
+        }
+        return NO_ROWS;
+    }
+
+    private ParsedStatement.Prepared statement() throws RequestValidationException {
+        ParsedStatement.Prepared prepared = QueryProcessor.instance.getPrepared(statementId);
+        if (prepared == null) {
+            // evicted from the prepared statement cache of the node, i.e. after a schema change
+            statementId = session.prepareStatement(query);
+            prepared = QueryProcessor.instance.getPrepared(statementId);
+            if (prepared == null) {
+                prepared = QueryProcessor.getStatement(query, session.queryState().getClientState());
+            }
+        }
+        return prepared;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ByteBuffer> bind(ParsedStatement.Prepared prepared, Object[] values) throws InvalidRequestException {
+        if (values.length != prepared.boundNames.size()) {
+            throw new InvalidRequestException(String.format("There were %d markers(?) in CQL but %d bound variables",
+                    prepared.boundNames.size(), values.length));
+        }
+        final List<ByteBuffer> buffers = new ArrayList<ByteBuffer>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            if (value == null || value instanceof ByteBuffer) {
+                buffers.add((ByteBuffer) value);
+            } else {
+                final AbstractType<Object> type = (AbstractType<Object>) prepared.boundNames.get(i).type;
+                try {
+                    buffers.add(type.decompose(value));
+                } catch (ClassCastException e) {
+                    throw new InvalidRequestException(String.format("Invalid value for %s: %s can't be bound to %s",
+                            prepared.boundNames.get(i).name, value.getClass().getName(), type.asCQL3Type()));
+                }
+            }
+        }
+        return buffers;
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Renders the metrics of the embedded node in the Prometheus text format (version 0.0.4).
+ * <p/>
+ * Scrapes are frequent and share the heap with the node and the applications, so a scrape allocates as little as possible:
+ * <ul>
+ *     <li>the metric names are only queried when the MBean count of the server changes (tables or the node come and go),
+ *     the lines of the series are rendered once, up to their value</li>
+ *     <li>each series is read with a single {@link MBeanServer#getAttributes} call</li>
+ *     <li>the output is rendered into a buffer that is reused by the next scrape</li>
+ * </ul>
+ * Samples are labelled with the cluster and, depending on the metric, the keyspace and table, cache or request type.
+ * <p/>
+ * The reservoirs of the node's timers and histograms never decay, so the quantiles, count and sum of a summary
+ * cover all samples since the node started.
+ */
+final class PrometheusExporter {
+
+    private static final String PREFIX = "cassandra_";
+
+    private static final String[] QUANTILES = {"0.5", "0.95", "0.99", "0.999"};
+
+    private static final String MEAN = "Mean";
+
+    // the attributes of timers: the quantiles, then the count
+    private static final String[] LATENCY_ATTRIBUTES = {"50thPercentile", "95thPercentile", "99thPercentile", "999thPercentile", CassandraMetrics.COUNT};
+
+    // the attributes of histograms: the quantiles, the count, then the mean
+    private static final String[] HISTOGRAM_ATTRIBUTES = {"50thPercentile", "95thPercentile", "99thPercentile", "999thPercentile", CassandraMetrics.COUNT, MEAN};
+
+    // timers measure in microseconds, prometheus expects seconds
+    private static final double MICROS_PER_SECOND = 1000 * 1000;
+
+    private enum Type {
+        GAUGE("gauge"), COUNTER("counter"), SUMMARY("summary");
+
+        private final String name;
+
+        Type(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * A metric family: all metrics of a name, i.e. the read latency of every table.
+     */
+    private static final class Family {
+
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final ObjectName pattern;
+        // the key property that becomes the scope label, if any
+        private final String scopeLabel;
+        private final String[] attributes;
+        // the units of the metric per unit of the exposition, i.e. microseconds per second
+        private final double divisor;
+        // the name of the counter that holds the sum of a latency, the sum of a histogram is its mean times its count
+        private final String total;
+
+        private Family(String name, String help, Type type, String pattern, String scopeLabel, String[] attributes, double divisor, String total) {
+            this.name = PREFIX + name;
+            this.help = help;
+            this.type = type;
+            this.pattern = CassandraMetrics.metric(pattern);
+            this.scopeLabel = scopeLabel;
+            this.attributes = attributes;
+            this.divisor = divisor;
+            this.total = total;
+        }
+    }
+
+    private static Family gauge(String name, String help, String pattern, String scopeLabel) {
+        return new Family(name, help, Type.GAUGE, pattern, scopeLabel, new String[]{CassandraMetrics.VALUE}, 1, null);
+    }
+
+    // counters of the metric registry that go down as well
+    private static Family countGauge(String name, String help, String pattern, String scopeLabel) {
+        return new Family(name, help, Type.GAUGE, pattern, scopeLabel, new String[]{CassandraMetrics.COUNT}, 1, null);
+    }
+
+    // counters, meters and the count of timers
+    private static Family counter(String name, String help, String pattern, String scopeLabel) {
+        return new Family(name, help, Type.COUNTER, pattern, scopeLabel, new String[]{CassandraMetrics.COUNT}, 1, null);
+    }
+
+    // gauges that only go up
+    private static Family valueCounter(String name, String help, String pattern, String scopeLabel) {
+        return new Family(name, help, Type.COUNTER, pattern, scopeLabel, new String[]{CassandraMetrics.VALUE}, 1, null);
+    }
+
+    /**
+     * @param total the name of the counter of the total latency, in microseconds
+     */
+    private static Family latency(String name, String help, String pattern, String scopeLabel, String total) {
+        return new Family(name, help, Type.SUMMARY, pattern, scopeLabel, LATENCY_ATTRIBUTES, MICROS_PER_SECOND, total);
+    }
+
+    private static Family histogram(String name, String help, String pattern, String scopeLabel) {
+        return new Family(name, help, Type.SUMMARY, pattern, scopeLabel, HISTOGRAM_ATTRIBUTES, 1, null);
+    }
+
+    private static final String TABLE = "table";
+
+    private static final Family[] FAMILIES = {
+            // tables
+            latency("table_read_latency_seconds", "Local read latency of a table", "type=ColumnFamily,name=ReadLatency,*", TABLE, "ReadTotalLatency"),
+            latency("table_write_latency_seconds", "Local write latency of a table", "type=ColumnFamily,name=WriteLatency,*", TABLE, "WriteTotalLatency"),
+            latency("table_range_latency_seconds", "Local range scan latency of a table", "type=ColumnFamily,name=RangeLatency,*", TABLE, "RangeTotalLatency"),
+            gauge("table_live_sstables", "Number of SSTables of a table", "type=ColumnFamily,name=LiveSSTableCount,*", TABLE),
+            histogram("table_sstables_per_read", "Number of SSTables a read of a table touches", "type=ColumnFamily,name=SSTablesPerReadHistogram,*", TABLE),
+            histogram("table_tombstones_per_read", "Number of tombstones a read of a table scans", "type=ColumnFamily,name=TombstoneScannedHistogram,*", TABLE),
+            countGauge("table_live_disk_space_used_bytes", "Disk space used by the live SSTables of a table", "type=ColumnFamily,name=LiveDiskSpaceUsed,*", TABLE),
+            countGauge("table_total_disk_space_used_bytes", "Disk space used by all SSTables of a table, including obsolete ones", "type=ColumnFamily,name=TotalDiskSpaceUsed,*", TABLE),
+            gauge("table_memtable_live_data_size_bytes", "Size of the live data in the memtable of a table", "type=ColumnFamily,name=MemtableLiveDataSize,*", TABLE),
+            gauge("table_pending_compactions", "Estimated number of compactions pending for a table", "type=ColumnFamily,name=PendingCompactions,*", TABLE),
+            gauge("table_bloom_filter_false_ratio", "False positive ratio of the bloom filters of a table", "type=ColumnFamily,name=BloomFilterFalseRatio,*", TABLE),
+            // caches
+            counter("cache_requests_total", "Requests to a cache", "type=Cache,name=Requests,*", "cache"),
+            counter("cache_hits_total", "Hits of a cache", "type=Cache,name=Hits,*", "cache"),
+            gauge("cache_size_bytes", "Size of a cache", "type=Cache,name=Size,*", "cache"),
+            gauge("cache_capacity_bytes", "Capacity of a cache", "type=Cache,name=Capacity,*", "cache"),
+            gauge("cache_entries", "Number of entries of a cache", "type=Cache,name=Entries,*", "cache"),
+            // compactions
+            gauge("compaction_pending_tasks", "Estimated number of pending compactions", "type=Compaction,name=PendingTasks", null),
+            valueCounter("compaction_completed_tasks_total", "Completed compactions", "type=Compaction,name=CompletedTasks", null),
+            counter("compaction_bytes_compacted_total", "Bytes compacted", "type=Compaction,name=BytesCompacted", null),
+            // client requests, as coordinator
+            latency("client_request_latency_seconds", "Coordinator latency of client requests", "type=ClientRequest,name=Latency,*", "request", "TotalLatency"),
+            counter("client_request_timeouts_total", "Client requests that timed out", "type=ClientRequest,name=Timeouts,*", "request"),
+            counter("client_request_unavailables_total", "Client requests that failed for lack of live replicas", "type=ClientRequest,name=Unavailables,*", "request"),
+    };
+
+    /**
+     * A series of a family, read from a single MBean. The lines are rendered up to the value.
+     */
+    private static final class Series {
+
+        private final Family family;
+        private final ObjectName name;
+        // the counter of the total latency, if any
+        private final ObjectName total;
+        private final String[] lines;
+
+        private Series(Family family, ObjectName name, ObjectName total, String[] lines) {
+            this.family = family;
+            this.name = name;
+            this.total = total;
+            this.lines = lines;
+        }
+    }
+
+    private final String clusterLabel;
+    private final MBeanServer server = CassandraMetrics.server();
+    private final CharsetEncoder encoder = Charset.forName("UTF-8").newEncoder();
+
+    // guarded by this
+    private int mbeanCount = -1;
+    private final List<Series> series = new ArrayList<Series>();
+    private final StringBuilder text = new StringBuilder(64 * 1024);
+    private ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+
+    PrometheusExporter(String clusterName) {
+        this.clusterLabel = "cluster=\"" + escape(clusterName) + "\"";
+    }
+
+    /**
+     * Writes a snapshot of the metrics to the stream. Metrics that are not registered (i.e. the node isn't running) are left out.
+     */
+    synchronized void scrape(OutputStream out) throws IOException {
+        final int count = server.getMBeanCount();
+        if (count != mbeanCount) {
+            refresh();
+            mbeanCount = count;
+        }
+
+        text.setLength(0);
+        Family current = null;
+        for (Series s : series) {
+            if (s.family != current) {
+                current = s.family;
+                text.append("# HELP ").append(current.name).append(' ').append(current.help).append('\n');
+                text.append("# TYPE ").append(current.name).append(' ').append(current.type.name).append('\n');
+            }
+            append(s);
+        }
+        out.write(encode(), 0, bytes.position());
+    }
+
+    private void append(Series s) {
+        final AttributeList values;
+        try {
+            values = server.getAttributes(s.name, s.family.attributes);
+        } catch (InstanceNotFoundException e) {
+            // unregistered since the last refresh
+            mbeanCount = -1;
+            return;
+        } catch (JMException e) {
+            CassandraLogger.LOGGER.debugf(e, "Failed to read %s", s.name);
+            return;
+        }
+        // the attribute list skips attributes that can't be read, the attributes and values must match up
+        if (values.size() != s.family.attributes.length) {
+            return;
+        }
+        // the quantiles and the count of a summary, or the value
+        final int rendered = s.family.type == Type.SUMMARY ? QUANTILES.length + 1 : 1;
+        for (int i = 0; i < rendered; i++) {
+            final Number value = value(values, i, s.family.attributes[i]);
+            if (value == null) {
+                continue;
+            }
+            text.append(s.lines[i]);
+            final boolean isCount = s.family.type == Type.SUMMARY && i == QUANTILES.length;
+            if (value instanceof Double || value instanceof Float) {
+                text.append(isCount ? value.doubleValue() : value.doubleValue() / s.family.divisor);
+            } else if (isCount || s.family.divisor == 1) {
+                text.append(value.longValue());
+            } else {
+                text.append(value.longValue() / s.family.divisor);
+            }
+            text.append('\n');
+        }
+        if (s.family.type == Type.SUMMARY) {
+            appendSum(s, values);
+        }
+    }
+
+    private void appendSum(Series s, AttributeList values) {
+        final double sum;
+        if (s.total != null) {
+            final Object total;
+            try {
+                total = server.getAttribute(s.total, CassandraMetrics.COUNT);
+            } catch (JMException e) {
+                CassandraLogger.LOGGER.debugf(e, "Failed to read %s", s.total);
+                return;
+            }
+            if (!(total instanceof Number)) {
+                return;
+            }
+            sum = ((Number) total).longValue() / s.family.divisor;
+        } else {
+            // up to the resolution of the buckets
+            final Number count = value(values, QUANTILES.length, CassandraMetrics.COUNT);
+            final Number mean = value(values, QUANTILES.length + 1, MEAN);
+            if (count == null || mean == null) {
+                return;
+            }
+            sum = mean.doubleValue() * count.longValue() / s.family.divisor;
+        }
+        text.append(s.lines[QUANTILES.length + 1]).append(sum).append('\n');
+    }
+
+    private static Number value(AttributeList values, int index, String attributeName) {
+        final Attribute attribute = (Attribute) values.get(index);
+        final Object value = attribute.getValue();
+        return attributeName.equals(attribute.getName()) && value instanceof Number ? (Number) value : null;
+    }
+
+    private byte[] encode() {
+        final int maxLength = (int) (text.length() * encoder.maxBytesPerChar());
+        if (bytes.capacity() < maxLength) {
+            bytes = ByteBuffer.allocate(maxLength);
+        }
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(text), bytes, true);
+        encoder.flush(bytes);
+        return bytes.array();
+    }
+
+    /**
+     * Queries the metric names and renders the lines of their series.
+     */
+    private void refresh() {
+        series.clear();
+        for (Family family : FAMILIES) {
+            // sorted, the output is stable between scrapes
+            final Set<ObjectName> names = new TreeSet<ObjectName>(server.queryNames(family.pattern, null));
+            for (ObjectName name : names) {
+                series.add(new Series(family, name, family.total != null ? withName(name, family.total) : null, lines(family, name)));
+            }
+        }
+    }
+
+    private String[] lines(Family family, ObjectName name) {
+        final StringBuilder labels = new StringBuilder(clusterLabel);
+        final String keyspace = name.getKeyProperty("keyspace");
+        if (keyspace != null) {
+            labels.append(",keyspace=\"").append(escape(keyspace)).append('"');
+        }
+        final String scope = name.getKeyProperty("scope");
+        if (family.scopeLabel != null && scope != null) {
+            labels.append(',').append(family.scopeLabel).append("=\"").append(escape(scope)).append('"');
+        }
+
+        if (family.type != Type.SUMMARY) {
+            return new String[]{family.name + '{' + labels + "} "};
+        }
+        final String[] lines = new String[QUANTILES.length + 2];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            lines[i] = family.name + '{' + labels + ",quantile=\"" + QUANTILES[i] + "\"} ";
+        }
+        lines[QUANTILES.length] = family.name + "_count{" + labels + "} ";
+        lines[QUANTILES.length + 1] = family.name + "_sum{" + labels + "} ";
+        return lines;
+    }
+
+    /**
+     * @return the name of the metric with the same keyspace and scope as the given one
+     */
+    private static ObjectName withName(ObjectName metric, String name) {
+        final Hashtable<String, String> properties = new Hashtable<String, String>(metric.getKeyPropertyList());
+        properties.put("name", name);
+        try {
+            return new ObjectName(metric.getDomain(), properties);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(name, e);
+        }
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.network.SocketBinding;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.io.IOServices;
+import org.xnio.XnioWorker;
+
+import java.util.List;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Adds the Prometheus exporter of a cluster and installs its endpoint.
+ */
+class PrometheusExporterAdd extends AbstractAddStepHandler {
+
+    static final PrometheusExporterAdd INSTANCE = new PrometheusExporterAdd();
+
+    private PrometheusExporterAdd() {
+    }
+
+    @Override
+    protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+        for (AttributeDefinition def : PrometheusExporterDefinition.ATTRIBUTES) {
+            def.validateAndSet(operation, model);
+        }
+    }
+
+    @Override
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> controllers) throws OperationFailedException {
+        controllers.add(installExporter(context, PathAddress.pathAddress(operation.get(OP_ADDR)), model, verificationHandler));
+    }
+
+    /**
+     * @param address the address of the exporter resource
+     */
+    static ServiceController<?> installExporter(OperationContext context, PathAddress address, ModelNode model, ServiceVerificationHandler verificationHandler) throws OperationFailedException {
+        final String clusterName = ClusterRuntimeHandler.getClusterName(address);
+        final PrometheusExporterService service = new PrometheusExporterService(clusterName,
+                PrometheusExporterDefinition.PATH.resolveModelAttribute(context, model).asString());
+        final String socketBinding = PrometheusExporterDefinition.SOCKET_BINDING.resolveModelAttribute(context, model).asString();
+        final String worker = PrometheusExporterDefinition.WORKER.resolveModelAttribute(context, model).asString();
+        return context.getServiceTarget()
+                .addService(PrometheusExporterService.serviceName(clusterName), service)
+                .addDependency(SocketBinding.JBOSS_BINDING_NAME.append(socketBinding), SocketBinding.class, service.getSocketBindingInjector())
+                .addDependency(IOServices.WORKER.append(worker), XnioWorker.class, service.getWorkerInjector())
+                .addListener(verificationHandler)
+                .install();
+    }
+}
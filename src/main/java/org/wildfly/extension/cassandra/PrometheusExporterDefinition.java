@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Publishes the metrics of the running node on an HTTP endpoint in the Prometheus text format.
+ * The endpoint has its own socket binding and runs on an IO worker, independent of the node: it stays up
+ * while the node restarts and serves no samples while the node is down.
+ */
+public class PrometheusExporterDefinition extends PersistentResourceDefinition {
+
+    static final SimpleAttributeDefinition SOCKET_BINDING =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.SOCKET_BINDING, ModelType.STRING, false)
+                    .setAllowExpression(false)
+                    .setValidator(new StringLengthValidator(1, false, false))
+                    .addAccessConstraint(SensitiveTargetAccessConstraintDefinition.SOCKET_BINDING_REF)
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition WORKER =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.WORKER, ModelType.STRING, true)
+                    .setAllowExpression(false)
+                    .setDefaultValue(new ModelNode("default"))
+                    .setValidator(new StringLengthValidator(1, true, false))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition PATH =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PATH, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode("/metrics"))
+                    .setValidator(new StringLengthValidator(1, true, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {SOCKET_BINDING, WORKER, PATH};
+
+    static final PrometheusExporterDefinition INSTANCE = new PrometheusExporterDefinition();
+
+    private PrometheusExporterDefinition() {
+        super(CassandraExtension.PROMETHEUS_EXPORTER_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.EXPORTER),
+                PrometheusExporterAdd.INSTANCE,
+                PrometheusExporterRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        PrometheusExporterWriteAttributeHandler handler = new PrometheusExporterWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.protocol.http.HttpOpenListener;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import org.jboss.as.network.ManagedBinding;
+import org.jboss.as.network.SocketBinding;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.xnio.BufferAllocator;
+import org.xnio.ByteBufferSlicePool;
+import org.xnio.ChannelListener;
+import org.xnio.ChannelListeners;
+import org.xnio.IoUtils;
+import org.xnio.OptionMap;
+import org.xnio.Options;
+import org.xnio.StreamConnection;
+import org.xnio.XnioWorker;
+import org.xnio.channels.AcceptingChannel;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+/**
+ * The HTTP endpoint of the {@link PrometheusExporter} of a cluster. A plain undertow listener on the IO worker,
+ * it doesn't need the undertow subsystem.
+ */
+class PrometheusExporterService implements Service<PrometheusExporterService> {
+
+    // the scrape requests and responses are small
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final String clusterName;
+    private final String path;
+    private final InjectedValue<SocketBinding> socketBinding = new InjectedValue<SocketBinding>();
+    private final InjectedValue<XnioWorker> worker = new InjectedValue<XnioWorker>();
+
+    private volatile ServiceRegistry serviceRegistry;
+    private volatile AcceptingChannel<StreamConnection> server;
+    private volatile ManagedBinding managedBinding;
+
+    PrometheusExporterService(String clusterName, String path) {
+        this.clusterName = clusterName;
+        this.path = path;
+    }
+
+    /**
+     * The name of the exporter service of a cluster, {@code jboss.cassandra.<cluster-name>.prometheus}
+     */
+    static ServiceName serviceName(String clusterName) {
+        return ClusterAdd.serviceName(clusterName).append(CassandraModel.PROMETHEUS);
+    }
+
+    @Override
+    public PrometheusExporterService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        final SocketBinding binding = socketBinding.getValue();
+        final InetSocketAddress address = binding.getSocketAddress();
+        serviceRegistry = context.getController().getServiceContainer();
+        final HttpOpenListener openListener = new HttpOpenListener(
+                new ByteBufferSlicePool(BufferAllocator.BYTE_BUFFER_ALLOCATOR, BUFFER_SIZE, BUFFER_SIZE * 16), OptionMap.EMPTY);
+        openListener.setRootHandler(new ScrapeHandler(new PrometheusExporter(clusterName)));
+        final ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(openListener);
+        try {
+            server = worker.getValue().createStreamConnectionServer(address, acceptListener,
+                    OptionMap.create(Options.REUSE_ADDRESSES, true, Options.TCP_NODELAY, true));
+        } catch (IOException e) {
+            throw new StartException("Failed to start the Prometheus exporter of cluster '" + clusterName + "' on " + address, e);
+        }
+        server.resumeAccepts();
+        managedBinding = ManagedBinding.Factory.createSimpleManagedBinding(binding);
+        binding.getSocketBindings().getNamedRegistry().registerBinding(managedBinding);
+        CassandraLogger.LOGGER.infof("Prometheus exporter of cluster '%s' listening on http://%s:%d%s",
+                clusterName, address.getHostString(), address.getPort(), path);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        if (managedBinding != null) {
+            socketBinding.getValue().getSocketBindings().getNamedRegistry().unregisterBinding(managedBinding);
+            managedBinding = null;
+        }
+        IoUtils.safeClose(server);
+        server = null;
+    }
+
+    /**
+     * The metrics are JVM wide and cassandra never unregisters them, so they belong to the cluster owning cassandra,
+     * and only while its service is up.
+     */
+    private boolean isNodeUp() {
+        if (!clusterName.equals(DMRConfigLoader.getActiveCluster())) {
+            return false;
+        }
+        final ServiceController<?> controller = serviceRegistry.getService(ClusterAdd.serviceName(clusterName));
+        return controller != null && controller.getState() == ServiceController.State.UP;
+    }
+
+    Injector<SocketBinding> getSocketBindingInjector() {
+        return socketBinding;
+    }
+
+    Injector<XnioWorker> getWorkerInjector() {
+        return worker;
+    }
+
+    /**
+     * Serves the scrapes on a worker thread, the snapshot reads MBean attributes. The body is empty while the node is down.
+     */
+    private class ScrapeHandler implements HttpHandler {
+
+        private final PrometheusExporter exporter;
+
+        ScrapeHandler(PrometheusExporter exporter) {
+            this.exporter = exporter;
+        }
+
+        @Override
+        public void handleRequest(HttpServerExchange exchange) throws Exception {
+            if (exchange.isInIoThread()) {
+                exchange.dispatch(this);
+                return;
+            }
+            if (!path.equals(exchange.getRelativePath())) {
+                exchange.setResponseCode(404);
+                return;
+            }
+            if (!Methods.GET.equals(exchange.getRequestMethod())) {
+                exchange.setResponseCode(405);
+                exchange.getResponseHeaders().put(Headers.ALLOW, Methods.GET_STRING);
+                return;
+            }
+            exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, CONTENT_TYPE);
+            if (!isNodeUp()) {
+                return;
+            }
+            exchange.startBlocking();
+            final OutputStream out = exchange.getOutputStream();
+            exporter.scrape(out);
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.service.CacheService;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Changes the capacity of the caches of a running node. The change is transient: the model keeps the configured
+ * sizes, which the node reverts to on its next start. The attributes of the {@code tuning=caches} resource change
+ * both the model and the running node.
+ */
+class ResizeCachesHandler extends ClusterRuntimeHandler {
+
+    static final SimpleAttributeDefinition KEY_CACHE_SIZE = size(CassandraModel.KEY_CACHE_SIZE);
+    static final SimpleAttributeDefinition ROW_CACHE_SIZE = size(CassandraModel.ROW_CACHE_SIZE);
+    static final SimpleAttributeDefinition COUNTER_CACHE_SIZE = size(CassandraModel.COUNTER_CACHE_SIZE);
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.RESIZE_CACHES, CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER))
+                    .setParameters(KEY_CACHE_SIZE, ROW_CACHE_SIZE, COUNTER_CACHE_SIZE)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final ResizeCachesHandler INSTANCE = new ResizeCachesHandler();
+
+    private ResizeCachesHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final ModelNode keyCacheSize = KEY_CACHE_SIZE.resolveModelAttribute(context, operation);
+        final ModelNode rowCacheSize = ROW_CACHE_SIZE.resolveModelAttribute(context, operation);
+        final ModelNode counterCacheSize = COUNTER_CACHE_SIZE.resolveModelAttribute(context, operation);
+        if (!keyCacheSize.isDefined() && !rowCacheSize.isDefined() && !counterCacheSize.isDefined()) {
+            throw new OperationFailedException("At least one cache size is required");
+        }
+        if (service == null) {
+            throw notRunning(operation);
+        }
+
+        if (keyCacheSize.isDefined()) {
+            CacheService.instance.setKeyCacheCapacityInMB(keyCacheSize.asLong());
+        }
+        if (rowCacheSize.isDefined()) {
+            CacheService.instance.setRowCacheCapacityInMB(rowCacheSize.asLong());
+        }
+        if (counterCacheSize.isDefined()) {
+            CacheService.instance.setCounterCacheCapacityInMB(counterCacheSize.asLong());
+        }
+        CassandraLogger.LOGGER.infof("Resized caches of cluster '%s' (key: %s MB, row: %s MB, counter: %s MB)",
+                service.getClusterName(), keyCacheSize, rowCacheSize, counterCacheSize);
+    }
+
+    private static SimpleAttributeDefinition size(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setAllowExpression(true)
+                .setValidator(new LongRangeValidator(0, Long.MAX_VALUE, true, true))
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Writes settings cassandra reads into JVM wide statics (the {@code DatabaseDescriptor}, the {@code StageManager} executors, system properties)
+ * once, when the first node of the server starts. Restarting the cluster service or reloading the server doesn't re-read them,
+ * so a change made after that point requires a restart of the server.
+ */
+class RestartRequiredWriteAttributeHandler extends AbstractWriteAttributeHandler<Boolean> {
+
+    RestartRequiredWriteAttributeHandler(AttributeDefinition... attributeDefinitions) {
+        super(attributeDefinitions);
+    }
+
+    @Override
+    protected void finishModelStage(OperationContext context, ModelNode operation, String attributeName, ModelNode newValue, ModelNode oldValue, Resource model) throws OperationFailedException {
+        super.finishModelStage(context, operation, attributeName, newValue, oldValue, model);
+        if (CassandraModel.COMMIT_LOG_SYNC.equals(attributeName) || CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW.equals(attributeName)) {
+            CommitLogValidationHandler.addValidationStep(context, PathAddress.pathAddress(operation.get(OP_ADDR)));
+        }
+    }
+
+    @Override
+    protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode resolvedValue, ModelNode currentValue, HandbackHolder<Boolean> handbackHolder) throws OperationFailedException {
+        // picked up by ClusterAdd when the node starts, unless cassandra has already been initialized
+        final boolean restartRequired = DMRConfigLoader.getActiveCluster() != null;
+        if (restartRequired) {
+            context.restartRequired();
+        }
+        handbackHolder.setHandback(restartRequired);
+        return false;
+    }
+
+    @Override
+    protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName, ModelNode valueToRestore, ModelNode valueToRevert, Boolean restartRequired) throws OperationFailedException {
+        if (Boolean.TRUE.equals(restartRequired)) {
+            context.revertRestartRequired();
+        }
+    }
+}
@@ -47,6 +47,6 @@ public class RootDefinition extends PersistentResourceDefinition {
 
        @Override
        protected List<? extends PersistentResourceDefinition> getChildren() {
-           return Arrays.asList(ClusterDefinition.INSTANCE);
+           return Arrays.asList(ClusterDefinition.INSTANCE, SessionDefinition.INSTANCE);
        }
 }
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.ColumnFamilyStore;
+import org.apache.cassandra.service.CacheService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the saved key, row and counter caches of all tables in the background, once the node serves requests.
+ * Cassandra itself loads them table by table while opening the keyspaces, which delays the startup.
+ */
+class SavedCacheLoader implements Runnable {
+
+    private final String clusterName;
+    private final ExecutorService pool;
+    private final AtomicInteger keys = new AtomicInteger();
+    private final AtomicInteger rows = new AtomicInteger();
+    private final AtomicInteger counters = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    SavedCacheLoader(String clusterName, int threads) {
+        this.clusterName = clusterName;
+        this.pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "cassandra-cache-preload-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Submits the tables to the preload threads and waits for them to complete.
+     */
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        try {
+            for (final ColumnFamilyStore cfs : ColumnFamilyStore.all()) {
+                if (cancelled) {
+                    break;
+                }
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        load(cfs);
+                    }
+                });
+            }
+        } catch (RejectedExecutionException e) {
+            // cancelled meanwhile
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (cancelled) {
+            CassandraLogger.LOGGER.infof("Abandoned loading the saved caches of cluster '%s' (%s keys, %s rows, %s counters loaded)",
+                    clusterName, keys, rows, counters);
+        } else {
+            CassandraLogger.LOGGER.infof("Loaded the saved caches of cluster '%s' in %s ms (%s keys, %s rows, %s counters)",
+                    clusterName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), keys, rows, counters);
+        }
+    }
+
+    /**
+     * Abandons the loading, i.e. when the node stops. Tables already loading are completed.
+     */
+    void cancel() {
+        cancelled = true;
+        pool.shutdownNow();
+    }
+
+    private void load(ColumnFamilyStore cfs) {
+        try {
+            if (cfs.metadata.getCaching().keyCache.isEnabled()) {
+                keys.addAndGet(CacheService.instance.keyCache.loadSaved(cfs));
+            }
+            if (cfs.metadata.getCaching().rowCache.isEnabled()) {
+                rows.addAndGet(CacheService.instance.rowCache.loadSaved(cfs));
+            }
+            if (cfs.metadata.isCounter()) {
+                counters.addAndGet(CacheService.instance.counterCache.loadSaved(cfs));
+            }
+        } catch (Throwable t) {
+            // the caches are just an optimisation, a table without them is still served
+            CassandraLogger.LOGGER.warnf(t, "Failed to load the saved caches of %s.%s", cfs.keyspace.getName(), cfs.name);
+        }
+    }
+}
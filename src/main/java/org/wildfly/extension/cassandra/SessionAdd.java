@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+import java.util.List;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Adds a session resource, installs the session service and binds it in JNDI.
+ */
+class SessionAdd extends AbstractAddStepHandler {
+
+    static final SessionAdd INSTANCE = new SessionAdd();
+
+    /**
+     * The base name of the services of session resources. Kept apart from {@link ClusterAdd#SERVICE_NAME}
+     * so session and cluster names can't clash.
+     */
+    static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("cassandra-session");
+
+    private SessionAdd() {
+    }
+
+    /**
+     * The name of the service of a session, {@code jboss.cassandra-session.<session-name>}
+     */
+    static ServiceName serviceName(String sessionName) {
+        return SERVICE_NAME.append(sessionName);
+    }
+
+    @Override
+    protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+        for (AttributeDefinition def : SessionDefinition.ATTRIBUTES) {
+            def.validateAndSet(operation, model);
+        }
+    }
+
+    @Override
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model, ServiceVerificationHandler verificationHandler, List<ServiceController<?>> controllers) throws OperationFailedException {
+        final String sessionName = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        controllers.add(installSession(context, sessionName, model, verificationHandler));
+        final String jndiName = SessionDefinition.JNDI_NAME.resolveModelAttribute(context, model).asString();
+        controllers.add(CqlSessionService.installBinding(context, serviceName(sessionName), jndiName, verificationHandler));
+    }
+
+    /**
+     * Installs the session service, without its JNDI binding.
+     */
+    static ServiceController<CqlSession> installSession(OperationContext context, String sessionName, ModelNode model, ServiceVerificationHandler verificationHandler) throws OperationFailedException {
+        final String clusterName = SessionDefinition.CLUSTER.resolveModelAttribute(context, model).asString();
+        final CqlSessionService service = new CqlSessionService(clusterName, sessionName);
+        service.setConsistency(ConsistencyLevel.valueOf(SessionDefinition.CONSISTENCY_LEVEL.resolveModelAttribute(context, model).asString()));
+        service.setMaxConcurrentRequests(SessionDefinition.MAX_CONCURRENT_REQUESTS.resolveModelAttribute(context, model).asInt());
+        service.setBorrowTimeout(SessionDefinition.BORROW_TIMEOUT.resolveModelAttribute(context, model).asLong());
+        service.setPreparedQueryCacheSize(SessionDefinition.PREPARED_QUERY_CACHE_SIZE.resolveModelAttribute(context, model).asInt());
+        final ModelNode asyncThreads = SessionDefinition.ASYNC_THREADS.resolveModelAttribute(context, model);
+        if (asyncThreads.isDefined()) {
+            service.setAsyncThreads(asyncThreads.asInt());
+        }
+        return CqlSessionService.installSession(context, serviceName(sessionName), service, verificationHandler);
+    }
+}
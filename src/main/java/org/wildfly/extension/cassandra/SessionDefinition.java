@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A CQL session shared by the deployments looking it up at its JNDI name. Sessions execute queries
+ * in-process (see {@link CqlSession}), so there are no connections to pool. Instead the session limits
+ * the queries it executes concurrently and keeps the queries it has prepared.
+ */
+public class SessionDefinition extends PersistentResourceDefinition {
+
+    static final SimpleAttributeDefinition CLUSTER =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CLUSTER, ModelType.STRING, false)
+                    .setAllowExpression(false)
+                    .setValidator(new StringLengthValidator(1, false, false))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition JNDI_NAME =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.JNDI_NAME, ModelType.STRING, false)
+                    .setAllowExpression(true)
+                    .setValidator(new StringLengthValidator(1, false, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition CONSISTENCY_LEVEL =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CONSISTENCY_LEVEL, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(LocalCqlSession.DEFAULT_CONSISTENCY.name()))
+                    .setValidator(new StringAllowedValuesValidator(consistencyLevels()))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition MAX_CONCURRENT_REQUESTS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MAX_CONCURRENT_REQUESTS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(LocalCqlSession.DEFAULT_MAX_CONCURRENT_REQUESTS))
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition BORROW_TIMEOUT =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.BORROW_TIMEOUT, ModelType.LONG, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(LocalCqlSession.DEFAULT_BORROW_TIMEOUT))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setValidator(new LongRangeValidator(1, Long.MAX_VALUE, true, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition ASYNC_THREADS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.ASYNC_THREADS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final SimpleAttributeDefinition PREPARED_QUERY_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PREPARED_QUERY_CACHE_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(LocalCqlSession.DEFAULT_PREPARED_QUERY_CACHE_SIZE))
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setRestartAllServices()
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {CLUSTER, JNDI_NAME, CONSISTENCY_LEVEL, MAX_CONCURRENT_REQUESTS, BORROW_TIMEOUT, ASYNC_THREADS, PREPARED_QUERY_CACHE_SIZE};
+
+    // ----------- runtime metrics
+
+    static final SimpleAttributeDefinition IN_FLIGHT_REQUESTS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.IN_FLIGHT_REQUESTS, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition REQUESTS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.REQUESTS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_BORROW_WAIT_TIME = waitTime(CassandraModel.AVERAGE_BORROW_WAIT_TIME);
+    static final SimpleAttributeDefinition MAX_BORROW_WAIT_TIME = waitTime(CassandraModel.MAX_BORROW_WAIT_TIME);
+
+    static final SimpleAttributeDefinition PREPARED_QUERIES =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PREPARED_QUERIES, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition[] METRICS = {IN_FLIGHT_REQUESTS, REQUESTS, AVERAGE_BORROW_WAIT_TIME, MAX_BORROW_WAIT_TIME, PREPARED_QUERIES};
+
+    static final SessionDefinition INSTANCE = new SessionDefinition();
+
+    private SessionDefinition() {
+        super(CassandraExtension.SESSION_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.SESSION),
+                SessionAdd.INSTANCE,
+                SessionRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        // the binding is only replaced on reload, the other attributes restart the session
+        resourceRegistration.registerReadWriteAttribute(JNDI_NAME, null, new ReloadRequiredWriteAttributeHandler(JNDI_NAME));
+        SessionWriteAttributeHandler handler = new SessionWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            if (attr != JNDI_NAME) {
+                resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+            }
+        }
+        for (AttributeDefinition metric : METRICS) {
+            resourceRegistration.registerMetric(metric, SessionMetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+
+    private static String[] consistencyLevels() {
+        List<String> names = new ArrayList<String>();
+        for (ConsistencyLevel level : ConsistencyLevel.values()) {
+            names.add(level.name());
+        }
+        return names.toArray(new String[names.size()]);
+    }
+
+    private static SimpleAttributeDefinition waitTime(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+                .setStorageRuntime()
+                .build();
+    }
+}
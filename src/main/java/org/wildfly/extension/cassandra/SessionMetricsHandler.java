@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Reads the request statistics of a session. Undefined while the session is down.
+ */
+class SessionMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    static final SessionMetricsHandler INSTANCE = new SessionMetricsHandler();
+
+    private SessionMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String sessionName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(SessionAdd.serviceName(sessionName));
+        final LocalCqlSession session = controller != null ? ((CqlSessionService) controller.getService()).getSession() : null;
+        if (session != null) {
+            final String attributeName = operation.require(NAME).asString();
+            final ModelNode result = context.getResult();
+            if (CassandraModel.IN_FLIGHT_REQUESTS.equals(attributeName)) {
+                result.set(session.getInFlightRequests());
+            } else if (CassandraModel.REQUESTS.equals(attributeName)) {
+                result.set(session.getRequests());
+            } else if (CassandraModel.AVERAGE_BORROW_WAIT_TIME.equals(attributeName)) {
+                result.set(session.getAverageBorrowWaitTime(TimeUnit.MICROSECONDS));
+            } else if (CassandraModel.MAX_BORROW_WAIT_TIME.equals(attributeName)) {
+                result.set(session.getMaxBorrowWaitTime(TimeUnit.MICROSECONDS));
+            } else if (CassandraModel.PREPARED_QUERIES.equals(attributeName)) {
+                result.set(session.getPreparedQueries());
+            }
+        }
+        context.stepCompleted();
+    }
+}
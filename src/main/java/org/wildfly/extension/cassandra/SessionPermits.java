@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.apache.cassandra.exceptions.OverloadedException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the queries a {@link LocalCqlSession} executes at the same time. A query waits at most
+ * {@code borrowTimeout} milliseconds for a permit, then fails with an {@link OverloadedException}.
+ * Asynchronous queries don't wait, they fail right away if no permit is available.
+ */
+class SessionPermits {
+
+    private final Semaphore permits;
+    private final long borrowTimeout;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    SessionPermits(int maxConcurrentRequests, long borrowTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.borrowTimeout = borrowTimeout;
+    }
+
+    /**
+     * Waits for a permit to execute a query. Must be followed by {@link #release()}.
+     *
+     * @throws OverloadedException if no permit became available in time
+     */
+    void acquire() throws OverloadedException {
+        final long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                throw new OverloadedException(String.format("No permit to execute the query within %d ms, %d queries are executing",
+                        borrowTimeout, inFlight.get()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OverloadedException("Interrupted while waiting for a permit to execute the query");
+        }
+        acquired(System.nanoTime() - start);
+    }
+
+    /**
+     * Takes a permit if one is available right away. Must be followed by {@link #release()} if it succeeds.
+     */
+    boolean tryAcquire() {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        acquired(0);
+        return true;
+    }
+
+    private void acquired(long wait) {
+        inFlight.incrementAndGet();
+        requests.incrementAndGet();
+        totalWaitNanos.addAndGet(wait);
+        long max = maxWaitNanos.get();
+        while (wait > max && !maxWaitNanos.compareAndSet(max, wait)) {
+            max = maxWaitNanos.get();
+        }
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    /**
+     * Executes a task holding a permit. The permit is taken before the task is queued, so the queue of the
+     * executor doesn't grow beyond the permits. Doesn't block the caller: without a permit available,
+     * the future fails right away with an {@link OverloadedException}.
+     */
+    <T> ListenableFuture<T> submit(ListeningExecutorService executor, final Callable<T> task) {
+        if (!tryAcquire()) {
+            return Futures.immediateFailedFuture(new OverloadedException(String.format(
+                    "No permit to execute the query, %d queries are executing", inFlight.get())));
+        }
+        try {
+            return executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    try {
+                        return task.call();
+                    } finally {
+                        release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release();
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    int getInFlightRequests() {
+        return inFlight.get();
+    }
+
+    long getRequests() {
+        return requests.get();
+    }
+
+    long getAverageBorrowWaitTime(TimeUnit unit) {
+        final long count = requests.get();
+        return count == 0 ? 0 : unit.convert(totalWaitNanos.get() / count, TimeUnit.NANOSECONDS);
+    }
+
+    long getMaxBorrowWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+}
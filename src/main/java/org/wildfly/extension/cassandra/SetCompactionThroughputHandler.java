@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.service.StorageService;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Changes the compaction throughput of a running node. The change is transient: the model keeps the configured value,
+ * which the node reverts to on its next start. The {@code compaction-throughput-mb-per-sec} attribute changes both the model and the running node.
+ */
+class SetCompactionThroughputHandler extends ClusterRuntimeHandler {
+
+    static final SimpleAttributeDefinition COMPACTION_THROUGHPUT =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPACTION_THROUGHPUT, ModelType.INT, false)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, false, true))
+                    .build();
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.SET_COMPACTION_THROUGHPUT, CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER))
+                    .setParameters(COMPACTION_THROUGHPUT)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final SetCompactionThroughputHandler INSTANCE = new SetCompactionThroughputHandler();
+
+    private SetCompactionThroughputHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final int throughput = COMPACTION_THROUGHPUT.resolveModelAttribute(context, operation).asInt();
+        if (service == null) {
+            throw notRunning(operation);
+        }
+
+        StorageService.instance.setCompactionThroughputMbPerSec(throughput);
+        CassandraLogger.LOGGER.infof("Set compaction throughput of cluster '%s' to %s MB/s", service.getClusterName(), throughput);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.compaction.CompactionManager;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Changes the number of compaction threads of a running node. The change is transient: the model keeps the configured value,
+ * which the node reverts to on its next start. The {@code concurrent-compactors} attribute changes both the model and the running node.
+ */
+class SetConcurrentCompactorsHandler extends ClusterRuntimeHandler {
+
+    static final SimpleAttributeDefinition CONCURRENT_COMPACTORS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CONCURRENT_COMPACTORS, ModelType.INT, false)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, false, true))
+                    .build();
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.SET_CONCURRENT_COMPACTORS, CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER))
+                    .setParameters(CONCURRENT_COMPACTORS)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final SetConcurrentCompactorsHandler INSTANCE = new SetConcurrentCompactorsHandler();
+
+    private SetConcurrentCompactorsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final int compactors = CONCURRENT_COMPACTORS.resolveModelAttribute(context, operation).asInt();
+        if (service == null) {
+            throw notRunning(operation);
+        }
+
+        setConcurrentCompactors(compactors);
+        CassandraLogger.LOGGER.infof("Set concurrent compactors of cluster '%s' to %s", service.getClusterName(), compactors);
+    }
+
+    static void setConcurrentCompactors(int compactors) {
+        // the executor rejects a core size above the maximum, so the order depends on the direction
+        final CompactionManager compactionManager = CompactionManager.instance;
+        if (compactors > compactionManager.getMaximumCompactorThreads()) {
+            compactionManager.setMaximumCompactorThreads(compactors);
+            compactionManager.setCoreCompactorThreads(compactors);
+        } else {
+            compactionManager.setCoreCompactorThreads(compactors);
+            compactionManager.setMaximumCompactorThreads(compactors);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PersistentResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Controls how the node warms up when it starts. The saved caches are loaded once per JVM, when the node is
+ * bootstrapped, so the settings only affect the next start of the server and writing them doesn't restart the node.
+ */
+public class StartupDefinition extends PersistentResourceDefinition {
+
+    static final SimpleAttributeDefinition SAVED_CACHES_LOADING =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.SAVED_CACHES_LOADING, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(CassandraModel.EAGER))
+                    .setValidator(new StringAllowedValuesValidator(CassandraModel.EAGER, CassandraModel.LAZY))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final SimpleAttributeDefinition CACHE_PRELOAD_THREADS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CACHE_PRELOAD_THREADS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(2))
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .setFlags(AttributeAccess.Flag.RESTART_JVM)
+                    .build();
+
+    static final AttributeDefinition[] ATTRIBUTES = {SAVED_CACHES_LOADING, CACHE_PRELOAD_THREADS};
+
+    static final StartupDefinition INSTANCE = new StartupDefinition();
+
+    private StartupDefinition() {
+        super(CassandraExtension.STARTUP_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.STARTUP),
+                new ClusterTuningAdd(ATTRIBUTES),
+                ClusterTuningRemove.INSTANCE);
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        RestartRequiredWriteAttributeHandler handler = new RestartRequiredWriteAttributeHandler(ATTRIBUTES);
+        for (AttributeDefinition attr : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attr, null, handler);
+        }
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(ATTRIBUTES);
+    }
+}
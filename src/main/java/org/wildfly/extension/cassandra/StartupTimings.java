@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.dmr.ModelNode;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records how long the phases of a node startup take.
+ * <p/>
+ * {@code CassandraDaemon.activate()} runs the whole startup in one go. The service begins the phases it can see
+ * from the outside explicitly: the directory setup, the schema load, which is the start of {@code activate()}, and
+ * the client transports, which is {@code CassandraDaemon.start()}. Cassandra has no hooks for the phases in between,
+ * they are detected from the milestones it logs at INFO on its way up. This is best effort: a phase whose milestone
+ * isn't logged (i.e. no commit log to replay, the level of {@code org.apache.cassandra} is above INFO or the wording
+ * changed) is reported as undefined and its time is accounted to the previous phase.
+ */
+class StartupTimings extends Handler {
+
+    /**
+     * The phases in the order they run, along with the log messages starting them.
+     */
+    enum Phase {
+        DIRECTORY_SETUP(CassandraModel.DIRECTORY_SETUP),
+        // opens the keyspaces, which includes opening the sstables and loading the saved key caches
+        SCHEMA_LOAD(CassandraModel.SCHEMA_LOAD),
+        COMMIT_LOG_REPLAY(CassandraModel.COMMIT_LOG_REPLAY, "Replaying"),
+        RING_JOIN(CassandraModel.RING_JOIN, "Log replay complete"),
+        GOSSIP_SETTLE(CassandraModel.GOSSIP_SETTLE, "Waiting for gossip to settle"),
+        // begun explicitly
+        CLIENT_TRANSPORTS(CassandraModel.CLIENT_TRANSPORTS);
+
+        private final String attributeName;
+        private final String[] milestones;
+
+        Phase(String attributeName, String... milestones) {
+            this.attributeName = attributeName;
+            this.milestones = milestones;
+        }
+
+        String getAttributeName() {
+            return attributeName;
+        }
+
+        private boolean startsWith(String message) {
+            for (String milestone : milestones) {
+                if (message.startsWith(milestone)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final String CASSANDRA_LOGGER = "org.apache.cassandra";
+
+    private static final Pattern REPLAYED_MUTATIONS = Pattern.compile("(\\d+) replayed mutations");
+
+    // 0 means the phase hasn't been seen
+    private final long[] started = new long[Phase.values().length];
+    private volatile long finished;
+    private volatile long replayedMutations = -1;
+
+    synchronized void begin(Phase phase) {
+        if (started[phase.ordinal()] == 0) {
+            started[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    synchronized boolean hasReached(Phase phase) {
+        for (int i = phase.ordinal(); i < started.length; i++) {
+            if (started[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Starts listening to the cassandra log for the milestones.
+     */
+    void attach() {
+        Logger.getLogger(CASSANDRA_LOGGER).addHandler(this);
+    }
+
+    /**
+     * Stops listening and marks the startup as finished.
+     */
+    void finish() {
+        Logger.getLogger(CASSANDRA_LOGGER).removeHandler(this);
+        finished = System.nanoTime();
+    }
+
+    boolean isFinished() {
+        return finished != 0;
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        String message = record.getMessage();
+        if (message == null) {
+            return;
+        }
+        for (Phase phase : Phase.values()) {
+            if (phase.startsWith(message)) {
+                begin(phase);
+            }
+        }
+        if (message.startsWith("Log replay complete")) {
+            replayedMutations = replayedMutations(record);
+        }
+    }
+
+    private static long replayedMutations(LogRecord record) {
+        Object[] parameters = record.getParameters();
+        if (parameters != null && parameters.length == 1 && parameters[0] instanceof Number) {
+            return ((Number) parameters[0]).longValue();
+        }
+        Matcher matcher = REPLAYED_MUTATIONS.matcher(record.getMessage());
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+
+    /**
+     * @return the number of mutations replayed from the commit log, or -1 if unknown
+     */
+    long getReplayedMutations() {
+        return replayedMutations;
+    }
+
+    /**
+     * @return the replayed mutations per second, or -1 if unknown
+     */
+    synchronized double getReplayRate() {
+        long start = started[Phase.COMMIT_LOG_REPLAY.ordinal()];
+        if (replayedMutations < 0 || start == 0) {
+            return -1;
+        }
+        long nanos = nextStart(Phase.COMMIT_LOG_REPLAY) - start;
+        return nanos > 0 ? replayedMutations / (nanos / 1e9) : -1;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return the duration of each phase in milliseconds, plus the total
+     */
+    synchronized ModelNode toModelNode() {
+        ModelNode result = new ModelNode();
+        long first = 0;
+        for (Phase phase : Phase.values()) {
+            long start = started[phase.ordinal()];
+            ModelNode duration = result.get(phase.getAttributeName());
+            if (start == 0 || finished == 0) {
+                continue;
+            }
+            if (first == 0) {
+                first = start;
+            }
+            duration.set(TimeUnit.NANOSECONDS.toMillis(nextStart(phase) - start));
+        }
+        if (first != 0 && finished != 0) {
+            result.get(CassandraModel.TOTAL).set(TimeUnit.NANOSECONDS.toMillis(finished - first));
+        }
+        return result;
+    }
+
+    private long nextStart(Phase phase) {
+        for (int i = phase.ordinal() + 1; i < started.length; i++) {
+            // milestones logged out of order are ignored
+            if (started[i] >= started[phase.ordinal()]) {
+                return started[i];
+            }
+        }
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        ModelNode timings = toModelNode();
+        for (Phase phase : Phase.values()) {
+            ModelNode duration = timings.get(phase.getAttributeName());
+            if (duration.isDefined()) {
+                sb.append(sb.length() > 0 ? ", " : "").append(phase.getAttributeName()).append(": ").append(duration.asLong()).append(" ms");
+            }
+        }
+        return sb.toString();
+    }
+}
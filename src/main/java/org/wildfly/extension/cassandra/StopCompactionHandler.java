@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.db.compaction.CompactionManager;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Map;
+
+/**
+ * Stops a running compaction, identified by the id listed in {@code active-compactions}.
+ */
+class StopCompactionHandler extends ClusterRuntimeHandler {
+
+    static final SimpleAttributeDefinition COMPACTION_ID =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPACTION_ID, ModelType.STRING, false)
+                    .build();
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.STOP_COMPACTION,
+                    CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.RUNTIME_METRICS, CassandraModel.COMPACTIONS))
+                    .setParameters(COMPACTION_ID)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final StopCompactionHandler INSTANCE = new StopCompactionHandler();
+
+    private StopCompactionHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final String compactionId = COMPACTION_ID.resolveModelAttribute(context, operation).asString();
+        if (service == null) {
+            throw notRunning(operation);
+        }
+
+        // stopping an unknown id is silently ignored by the compaction manager
+        if (!isActive(compactionId)) {
+            throw new OperationFailedException("No active compaction with id '" + compactionId + "'");
+        }
+        CompactionManager.instance.stopCompactionById(compactionId);
+        CassandraLogger.LOGGER.infof("Stopped compaction %s of cluster '%s'", compactionId, service.getClusterName());
+    }
+
+    private static boolean isActive(String compactionId) {
+        for (Map<String, String> compaction : CompactionManager.instance.getCompactions()) {
+            if (compactionId.equals(compaction.get("id"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
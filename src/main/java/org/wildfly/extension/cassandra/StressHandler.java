@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.exceptions.CassandraException;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures the sustainable throughput and latency of a running node, see {@link StressRun}.
+ * The run blocks a management thread, so its duration and the keyspace it loads are capped. One run at a time.
+ */
+class StressHandler extends ClusterRuntimeHandler {
+
+    // the keyspace is loaded into the data directories of a live node
+    static final long MAX_LOAD_SIZE = 256 * 1024 * 1024;
+
+    static final SimpleAttributeDefinition DURATION =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.STRESS_DURATION, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(30))
+                    .setValidator(new IntRangeValidator(1, 120, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition CONCURRENCY =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CONCURRENCY, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(16))
+                    .setValidator(new IntRangeValidator(1, 1024, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition INSERT_WEIGHT = weight(CassandraModel.INSERT_WEIGHT, 5);
+    static final SimpleAttributeDefinition READ_WEIGHT = weight(CassandraModel.READ_WEIGHT, 4);
+    static final SimpleAttributeDefinition RANGE_READ_WEIGHT = weight(CassandraModel.RANGE_READ_WEIGHT, 1);
+
+    static final SimpleAttributeDefinition PARTITIONS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.PARTITIONS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(1000))
+                    .setValidator(new IntRangeValidator(1, 10000, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition VALUE_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.VALUE_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(256))
+                    .setValidator(new IntRangeValidator(0, 1024 * 1024, true, true))
+                    .build();
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.RUN_STRESS, CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER))
+                    .setParameters(DURATION, CONCURRENCY, INSERT_WEIGHT, READ_WEIGHT, RANGE_READ_WEIGHT, PARTITIONS, VALUE_SIZE)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final StressHandler INSTANCE = new StressHandler();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private StressHandler() {
+    }
+
+    private static SimpleAttributeDefinition weight(String name, int defaultValue) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.INT, true)
+                .setAllowExpression(true)
+                .setDefaultValue(new ModelNode(defaultValue))
+                .setValidator(new IntRangeValidator(0, true, true))
+                .build();
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final int insertWeight = INSERT_WEIGHT.resolveModelAttribute(context, operation).asInt();
+        final int readWeight = READ_WEIGHT.resolveModelAttribute(context, operation).asInt();
+        final int rangeReadWeight = RANGE_READ_WEIGHT.resolveModelAttribute(context, operation).asInt();
+        if (insertWeight + readWeight + rangeReadWeight == 0) {
+            throw new OperationFailedException("At least one of " + CassandraModel.INSERT_WEIGHT + ", " + CassandraModel.READ_WEIGHT
+                    + " and " + CassandraModel.RANGE_READ_WEIGHT + " must be greater than 0");
+        }
+        final int partitions = PARTITIONS.resolveModelAttribute(context, operation).asInt();
+        final int valueSize = VALUE_SIZE.resolveModelAttribute(context, operation).asInt();
+        if (StressRun.loadSize(partitions, valueSize) > MAX_LOAD_SIZE) {
+            throw new OperationFailedException(String.format("%s times %s loads %d bytes, at most %d are allowed",
+                    CassandraModel.PARTITIONS, CassandraModel.VALUE_SIZE, StressRun.loadSize(partitions, valueSize), MAX_LOAD_SIZE));
+        }
+        if (service == null) {
+            throw notRunning(operation);
+        }
+
+        final StressRun run = new StressRun(
+                CONCURRENCY.resolveModelAttribute(context, operation).asInt(),
+                DURATION.resolveModelAttribute(context, operation).asInt() * 1000L,
+                insertWeight, readWeight, rangeReadWeight, partitions, valueSize);
+        // concurrent runs would measure each other
+        if (!running.compareAndSet(false, true)) {
+            throw new OperationFailedException("A stress test is already running on this node");
+        }
+        try {
+            CassandraLogger.LOGGER.infof("Stress test of cluster '%s' on keyspace %s", service.getClusterName(), run.getKeyspace());
+            final ModelNode result = run.run();
+            CassandraLogger.LOGGER.infof("Stress test of cluster '%s': %s", service.getClusterName(), result);
+            context.getResult().set(result);
+        } catch (CassandraException e) {
+            throw new OperationFailedException("Stress test failed: " + e.getMessage());
+        } catch (ExecutionException e) {
+            throw new OperationFailedException("Stress test failed: " + e.getCause());
+        } catch (TimeoutException e) {
+            throw new OperationFailedException("Stress test failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException("Stress test interrupted");
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.exceptions.CassandraException;
+import org.apache.cassandra.utils.EstimatedHistogram;
+import org.jboss.dmr.ModelNode;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a mix of inserts, point reads and range reads against a scratch keyspace of the running node, through an in-VM session.
+ * Each run creates a keyspace of its own, named {@code wildfly_stress_<random>}, and drops it afterwards.
+ */
+final class StressRun {
+
+    static final String KEYSPACE_PREFIX = "wildfly_stress_";
+
+    // rows of each partition, written before the measurement starts. A range read returns RANGE_SIZE of them.
+    private static final int ROWS_PER_PARTITION = 20;
+    private static final int RANGE_SIZE = 10;
+
+    // the load blocks the management thread as well, it gets the cap of the measurement
+    static final long LOAD_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(120);
+
+    enum Operation {
+        INSERT(CassandraModel.INSERT), READ(CassandraModel.READ), RANGE_READ(CassandraModel.RANGE_READ);
+
+        private final String name;
+
+        Operation(String name) {
+            this.name = name;
+        }
+    }
+
+    private final String keyspace = KEYSPACE_PREFIX + UUID.randomUUID().toString().replace("-", "");
+    private final String table = keyspace + ".data";
+    private final int concurrency;
+    private final long durationMillis;
+    private final int[] weights;
+    private final int partitions;
+    private final ByteBuffer value;
+
+    private final EstimatedHistogram[] latencies = new EstimatedHistogram[Operation.values().length];
+    private final AtomicLong[] operations = new AtomicLong[Operation.values().length];
+    private final AtomicLong errors = new AtomicLong();
+    private volatile String lastError;
+
+    StressRun(int concurrency, long durationMillis, int insertWeight, int readWeight, int rangeReadWeight, int partitions, int valueSize) {
+        this.concurrency = concurrency;
+        this.durationMillis = durationMillis;
+        this.weights = new int[]{insertWeight, readWeight, rangeReadWeight};
+        this.partitions = partitions;
+        final byte[] bytes = new byte[valueSize];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        this.value = ByteBuffer.wrap(bytes);
+        for (Operation operation : Operation.values()) {
+            latencies[operation.ordinal()] = new EstimatedHistogram();
+            operations[operation.ordinal()] = new AtomicLong();
+        }
+    }
+
+    /**
+     * @return the results, see {@code run-stress}
+     */
+    ModelNode run() throws CassandraException, InterruptedException, ExecutionException, TimeoutException {
+        // the workers block on the queries, there is nothing to execute asynchronously
+        final CqlSession session = new LocalCqlSession(MoreExecutors.sameThreadExecutor(), ConsistencyLevel.ONE,
+                concurrency, LocalCqlSession.DEFAULT_BORROW_TIMEOUT, LocalCqlSession.DEFAULT_PREPARED_QUERY_CACHE_SIZE);
+        // fails if the keyspace exists, it is only dropped once this run has created it
+        session.execute("CREATE KEYSPACE " + keyspace + " WITH replication = {'class': 'SimpleStrategy', 'replication_factor': 1}");
+        final ExecutorService workers = Executors.newFixedThreadPool(concurrency, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "cassandra-stress-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            session.execute("CREATE TABLE " + table + " (pk int, ck int, v blob, PRIMARY KEY (pk, ck))");
+            load(session, workers);
+            return measure(session, workers);
+        } finally {
+            workers.shutdownNow();
+            try {
+                session.execute("DROP KEYSPACE " + keyspace);
+            } catch (RuntimeException e) {
+                // don't hide the result or failure of the run
+                CassandraLogger.LOGGER.warnf(e, "Failed to drop the stress test keyspace %s", keyspace);
+            }
+        }
+    }
+
+    String getKeyspace() {
+        return keyspace;
+    }
+
+    /**
+     * @return the size of the values loaded into the keyspace before the measurement, in bytes
+     */
+    static long loadSize(int partitions, int valueSize) {
+        return (long) partitions * ROWS_PER_PARTITION * valueSize;
+    }
+
+    private void load(CqlSession session, ExecutorService workers) throws CassandraException, InterruptedException, ExecutionException, TimeoutException {
+        final PreparedQuery insert = session.prepare("INSERT INTO " + table + " (pk, ck, v) VALUES (?, ?, ?)");
+        final AtomicInteger nextPartition = new AtomicInteger();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LOAD_TIMEOUT_MILLIS);
+        final List<Future<Void>> loaders = new ArrayList<Future<Void>>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            loaders.add(workers.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (int pk = nextPartition.getAndIncrement(); pk < partitions; pk = nextPartition.getAndIncrement()) {
+                        for (int ck = 0; ck < ROWS_PER_PARTITION; ck++) {
+                            insert.execute(pk, ck, value.duplicate());
+                        }
+                        // the partitions that have been taken are complete
+                        if (System.nanoTime() >= deadline || Thread.currentThread().isInterrupted()) {
+                            return null;
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> loader : loaders) {
+            loader.get();
+        }
+        if (nextPartition.get() < partitions) {
+            throw new TimeoutException(String.format("The keyspace wasn't loaded within %d seconds, lower %s or %s",
+                    TimeUnit.MILLISECONDS.toSeconds(LOAD_TIMEOUT_MILLIS), CassandraModel.PARTITIONS, CassandraModel.VALUE_SIZE));
+        }
+    }
+
+    private ModelNode measure(CqlSession session, ExecutorService workers) throws CassandraException, InterruptedException, ExecutionException {
+        final PreparedQuery[] queries = new PreparedQuery[]{
+                session.prepare("INSERT INTO " + table + " (pk, ck, v) VALUES (?, ?, ?)"),
+                session.prepare("SELECT v FROM " + table + " WHERE pk = ? AND ck = ?"),
+                session.prepare("SELECT v FROM " + table + " WHERE pk = ? AND ck >= ? AND ck < ?")
+        };
+
+        final long gcTime = gcTime();
+        final long gcCount = gcCount();
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        final List<Future<Void>> drivers = new ArrayList<Future<Void>>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            drivers.add(workers.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        execute(next(), queries);
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> driver : drivers) {
+            driver.get();
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        final ModelNode result = new ModelNode();
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            final long count = operations[operation.ordinal()].get();
+            total += count;
+            final ModelNode node = result.get(operation.name);
+            node.get(CassandraModel.OPERATIONS).set(count);
+            node.get(CassandraModel.OPERATIONS_PER_SEC).set(perSecond(count, elapsed));
+            readLatency(latencies[operation.ordinal()], node.get(CassandraModel.LATENCY));
+        }
+        result.get(CassandraModel.ELAPSED_TIME).set(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.get(CassandraModel.OPERATIONS).set(total);
+        result.get(CassandraModel.OPERATIONS_PER_SEC).set(perSecond(total, elapsed));
+        result.get(CassandraModel.ERRORS).set(errors.get());
+        if (lastError != null) {
+            result.get(CassandraModel.LAST_ERROR).set(lastError);
+        }
+        result.get(CassandraModel.GC_TIME).set(gcTime() - gcTime);
+        result.get(CassandraModel.GC_COUNT).set(gcCount() - gcCount);
+        return result;
+    }
+
+    private Operation next() {
+        return choose(weights, ThreadLocalRandom.current().nextInt(weights[0] + weights[1] + weights[2]));
+    }
+
+    /**
+     * @param weights the weight of each operation, by ordinal
+     * @param choice a number in [0, sum of the weights)
+     */
+    static Operation choose(int[] weights, int choice) {
+        for (Operation operation : Operation.values()) {
+            choice -= weights[operation.ordinal()];
+            if (choice < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Choice beyond the sum of the weights");
+    }
+
+    private void execute(Operation operation, PreparedQuery[] queries) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int pk = random.nextInt(partitions);
+        final long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case INSERT:
+                    queries[operation.ordinal()].execute(pk, random.nextInt(ROWS_PER_PARTITION), value.duplicate());
+                    break;
+                case READ:
+                    queries[operation.ordinal()].execute(pk, random.nextInt(ROWS_PER_PARTITION));
+                    break;
+                case RANGE_READ:
+                    final int from = random.nextInt(ROWS_PER_PARTITION - RANGE_SIZE + 1);
+                    queries[operation.ordinal()].execute(pk, from, from + RANGE_SIZE);
+                    break;
+            }
+            latencies[operation.ordinal()].add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            operations[operation.ordinal()].incrementAndGet();
+        } catch (CassandraException e) {
+            // timeouts and overload are results as well
+            errors.incrementAndGet();
+            lastError = e.getMessage();
+        }
+    }
+
+    /**
+     * Reads a latency histogram (in microseconds) like {@link CassandraMetrics#readLatency} reads the timers of the node.
+     */
+    static ModelNode readLatency(EstimatedHistogram histogram, ModelNode target) {
+        if (histogram.count() == 0) {
+            return target;
+        }
+        target.get(CassandraModel.P50).set(histogram.percentile(0.5));
+        target.get(CassandraModel.P95).set(histogram.percentile(0.95));
+        target.get(CassandraModel.P99).set(histogram.percentile(0.99));
+        target.get(CassandraModel.P999).set(histogram.percentile(0.999));
+        target.get(CassandraModel.MEAN).set(histogram.mean());
+        target.get(CassandraModel.MAX).set(histogram.max());
+        target.get(CassandraModel.COUNT).set(histogram.count());
+        return target;
+    }
+
+    static double perSecond(long count, long nanos) {
+        return nanos > 0 ? count * (double) TimeUnit.SECONDS.toNanos(1) / nanos : 0;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.operations.validation.AllowedValuesValidator;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Validates that a string parameter is one of a fixed set of values, which are listed in the resource description.
+ * WildFly 8 has no such validator for values that don't map to an enum of the subsystem.
+ */
+class StringAllowedValuesValidator extends ModelTypeValidator implements AllowedValuesValidator {
+
+    private final List<String> values;
+    private final List<ModelNode> allowedValues;
+
+    StringAllowedValuesValidator(String... values) {
+        super(ModelType.STRING, true, true);
+        this.values = Arrays.asList(values);
+        List<ModelNode> nodes = new ArrayList<ModelNode>(values.length);
+        for (String value : values) {
+            nodes.add(new ModelNode(value));
+        }
+        this.allowedValues = Collections.unmodifiableList(nodes);
+    }
+
+    @Override
+    public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+        super.validateParameter(parameterName, value);
+        if (value.isDefined() && value.getType() != ModelType.EXPRESSION && !values.contains(value.asString())) {
+            throw new OperationFailedException(String.format("%s is an invalid value for parameter %s. Values must be one of: %s",
+                    value.asString(), parameterName, values));
+        }
+    }
+
+    @Override
+    public List<ModelNode> getAllowedValues() {
+        return allowedValues;
+    }
+}
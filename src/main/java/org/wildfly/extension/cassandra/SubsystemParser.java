@@ -48,7 +48,45 @@ public class SubsystemParser implements XMLStreamConstants, XMLElementReader<Lis
                 .addChild(
                         builder(ClusterDefinition.INSTANCE)
                                 .addAttributes(ClusterDefinition.INSTANCE.getAttributes())
+                                .addChild(
+                                        builder(ThreadPoolsDefinition.INSTANCE)
+                                                .addAttributes(ThreadPoolsDefinition.INSTANCE.getAttributes())
+                                                .setXmlElementName(CassandraModel.THREAD_POOLS)
+                                )
+                                .addChild(
+                                        builder(CachesDefinition.INSTANCE)
+                                                .addAttributes(CachesDefinition.INSTANCE.getAttributes())
+                                                .setXmlElementName(CassandraModel.CACHES)
+                                )
+                                .addChild(
+                                        builder(CommitLogDefinition.INSTANCE)
+                                                .addAttributes(CommitLogDefinition.INSTANCE.getAttributes())
+                                                .setXmlElementName(CassandraModel.COMMIT_LOG)
+                                )
+                                .addChild(
+                                        builder(StartupDefinition.INSTANCE)
+                                                .addAttributes(StartupDefinition.INSTANCE.getAttributes())
+                                                .setXmlElementName(CassandraModel.STARTUP)
+                                )
+                                .addChild(
+                                        builder(NativeTransportDefinition.INSTANCE)
+                                                .addAttributes(NativeTransportDefinition.INSTANCE.getAttributes())
+                                                .setXmlElementName(CassandraModel.NATIVE_TRANSPORT)
+                                )
+                                .addChild(
+                                        builder(DataDirectoryDefinition.INSTANCE)
+                                                .addAttributes(DataDirectoryDefinition.INSTANCE.getAttributes())
+                                )
+                                .addChild(
+                                        builder(PrometheusExporterDefinition.INSTANCE)
+                                                .addAttributes(PrometheusExporterDefinition.INSTANCE.getAttributes())
+                                                .setXmlElementName(CassandraModel.PROMETHEUS)
+                                )
                 )               .setXmlElementName(CassandraModel.CLUSTER)
+                .addChild(
+                        builder(SessionDefinition.INSTANCE)
+                                .addAttributes(SessionDefinition.INSTANCE.getAttributes())
+                )
                 .build();
     }
 
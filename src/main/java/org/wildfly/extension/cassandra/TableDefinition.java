@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Runtime resource for a table of the running node, populated by {@link KeyspaceResource}.
+ * Collects the statistics of {@code nodetool cfstats} for a single table.
+ */
+public class TableDefinition extends SimpleResourceDefinition {
+
+    static final SimpleAttributeDefinition SSTABLE_COUNT =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.SSTABLE_COUNT, ModelType.INT, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final ObjectTypeAttributeDefinition PARTITION_SIZE =
+            ObjectTypeAttributeDefinition.Builder.of(CassandraModel.PARTITION_SIZE,
+                    size(CassandraModel.MIN), size(CassandraModel.P50), size(CassandraModel.P95), size(CassandraModel.P99),
+                    size(CassandraModel.MAX), size(CassandraModel.MEAN), count())
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition BLOOM_FILTER_FALSE_RATIO =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.BLOOM_FILTER_FALSE_RATIO, ModelType.DOUBLE, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final ObjectTypeAttributeDefinition TOMBSTONES_SCANNED =
+            ObjectTypeAttributeDefinition.Builder.of(CassandraModel.TOMBSTONES_SCANNED,
+                    number(CassandraModel.P50), number(CassandraModel.P95), number(CassandraModel.P99), number(CassandraModel.P999),
+                    number(CassandraModel.MEAN), number(CassandraModel.MAX), count())
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition MEMTABLE_LIVE_DATA_SIZE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.MEMTABLE_LIVE_DATA_SIZE, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition ESTIMATED_KEYS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.ESTIMATED_KEYS, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition[] METRICS = {
+            SSTABLE_COUNT, PARTITION_SIZE, BLOOM_FILTER_FALSE_RATIO, TOMBSTONES_SCANNED, MEMTABLE_LIVE_DATA_SIZE, ESTIMATED_KEYS
+    };
+
+    static final TableDefinition INSTANCE = new TableDefinition();
+
+    private TableDefinition() {
+        super(CassandraExtension.TABLE_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.KEYSPACE, CassandraModel.TABLE));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        // the local latencies of the table
+        for (AttributeDefinition attr : ClusterDefinition.LATENCY_METRICS) {
+            resourceRegistration.registerMetric(attr, LatencyMetricsHandler.INSTANCE);
+        }
+        resourceRegistration.registerMetric(ClusterDefinition.MEMTABLE_ON_HEAP_SIZE, MemtableMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(ClusterDefinition.MEMTABLE_OFF_HEAP_SIZE, MemtableMetricsHandler.INSTANCE);
+        for (AttributeDefinition attr : METRICS) {
+            resourceRegistration.registerMetric(attr, TableMetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(TableOptionsHandler.DEFINITION, TableOptionsHandler.INSTANCE);
+    }
+
+    private static SimpleAttributeDefinition size(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setMeasurementUnit(MeasurementUnit.BYTES)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleAttributeDefinition number(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.DOUBLE, true)
+                .setStorageRuntime()
+                .build();
+    }
+
+    private static SimpleAttributeDefinition count() {
+        return new SimpleAttributeDefinitionBuilder(CassandraModel.COUNT, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+}
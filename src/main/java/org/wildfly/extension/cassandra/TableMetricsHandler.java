@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.utils.EstimatedHistogram;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Reads the statistics of a table of the running node.
+ */
+class TableMetricsHandler extends ClusterRuntimeHandler {
+
+    static final TableMetricsHandler INSTANCE = new TableMetricsHandler();
+
+    private TableMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        final String keyspace = address.getElement(address.size() - 2).getValue();
+        final String table = address.getLastElement().getValue();
+        final String attributeName = operation.require(NAME).asString();
+        final ModelNode result = context.getResult();
+        if (CassandraModel.SSTABLE_COUNT.equals(attributeName)) {
+            result.set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "LiveSSTableCount"), CassandraMetrics.VALUE));
+        } else if (CassandraModel.PARTITION_SIZE.equals(attributeName)) {
+            readPartitionSize(keyspace, table, result);
+        } else if (CassandraModel.BLOOM_FILTER_FALSE_RATIO.equals(attributeName)) {
+            result.set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "BloomFilterFalseRatio"), CassandraMetrics.VALUE));
+        } else if (CassandraModel.TOMBSTONES_SCANNED.equals(attributeName)) {
+            // a histogram, but with the same attributes as the latency timers
+            CassandraMetrics.readLatency(CassandraMetrics.table(keyspace, table, "TombstoneScannedHistogram"), result);
+        } else if (CassandraModel.MEMTABLE_LIVE_DATA_SIZE.equals(attributeName)) {
+            result.set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "MemtableLiveDataSize"), CassandraMetrics.VALUE));
+        } else if (CassandraModel.ESTIMATED_KEYS.equals(attributeName)) {
+            result.set(estimateKeys(keyspace, table));
+        }
+    }
+
+    /**
+     * The partition sizes of the sstables of a table. Memtables are not included.
+     */
+    private static void readPartitionSize(String keyspace, String table, ModelNode result) {
+        final long[] buckets = CassandraMetrics.readBuckets(CassandraMetrics.table(keyspace, table, "EstimatedRowSizeHistogram"));
+        if (buckets == null) {
+            return;
+        }
+        if (buckets.length == 0) {
+            // no sstables yet
+            result.get(CassandraModel.COUNT).set(0L);
+            return;
+        }
+        // the gauge only exposes the bucket counts, the offsets are the default ones of the same bucket count
+        final long[] offsets = new EstimatedHistogram(buckets.length - 1).getBucketOffsets();
+        final EstimatedHistogram histogram = new EstimatedHistogram(offsets, buckets);
+        if (histogram.count() == 0) {
+            result.get(CassandraModel.COUNT).set(0L);
+            return;
+        }
+        result.get(CassandraModel.MIN).set(histogram.min());
+        result.get(CassandraModel.P50).set(histogram.percentile(0.5));
+        result.get(CassandraModel.P95).set(histogram.percentile(0.95));
+        result.get(CassandraModel.P99).set(histogram.percentile(0.99));
+        result.get(CassandraModel.MAX).set(histogram.max());
+        result.get(CassandraModel.MEAN).set(histogram.mean());
+        result.get(CassandraModel.COUNT).set(histogram.count());
+    }
+
+    /**
+     * Estimated from the index summaries of the sstables, not a metric of the registry.
+     */
+    private static ModelNode estimateKeys(String keyspace, String table) {
+        try {
+            final ObjectName store = new ObjectName("org.apache.cassandra.db:type=ColumnFamilies,keyspace=" + keyspace + ",columnfamily=" + table);
+            final Object keys = CassandraMetrics.server().invoke(store, "estimateKeys", null, null);
+            return keys instanceof Number ? new ModelNode(((Number) keys).longValue()) : new ModelNode();
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(keyspace + "." + table, e);
+        } catch (InstanceNotFoundException e) {
+            return new ModelNode();
+        } catch (JMException e) {
+            CassandraLogger.LOGGER.debugf(e, "Failed to estimate the keys of %s.%s", keyspace, table);
+            return new ModelNode();
+        }
+    }
+}
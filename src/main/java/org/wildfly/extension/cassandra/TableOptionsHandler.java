@@ -0,0 +1,334 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.cassandra.cache.CachingOptions;
+import org.apache.cassandra.config.CFMetaData;
+import org.apache.cassandra.config.Schema;
+import org.apache.cassandra.db.ConsistencyLevel;
+import org.apache.cassandra.db.Keyspace;
+import org.apache.cassandra.db.compaction.CompactionManager;
+import org.apache.cassandra.exceptions.CassandraException;
+import org.apache.cassandra.io.compress.CompressionParameters;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.StringLengthValidator;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+/**
+ * Changes the compaction, compression, bloom filter, caching and gc grace options of a table with an {@code ALTER TABLE}
+ * executed by the running node. Like any schema change, it is propagated to the other nodes of the cluster.
+ * <p/>
+ * Reports the options, SSTable count and pending compactions of the table before and after the change, and the latency
+ * of the reads in between, so the effect of i.e. a new compaction strategy can be followed without leaving the management tooling.
+ */
+class TableOptionsHandler extends ClusterRuntimeHandler {
+
+    static final SimpleAttributeDefinition COMPACTION_STRATEGY =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPACTION_STRATEGY, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new StringLengthValidator(1, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition COMPRESSION_CHUNK_LENGTH =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.COMPRESSION_CHUNK_LENGTH, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(1, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition BLOOM_FILTER_FP_CHANCE =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.BLOOM_FILTER_FP_CHANCE, ModelType.DOUBLE, true)
+                    .setAllowExpression(true)
+                    .setValidator(new DoubleRangeValidator(0, false, 1, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition CACHING_KEYS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CACHING_KEYS, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new StringAllowedValuesValidator("ALL", "NONE"))
+                    .build();
+
+    // ALL, NONE or the number of rows cached per partition
+    static final SimpleAttributeDefinition CACHING_ROWS_PER_PARTITION =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.CACHING_ROWS_PER_PARTITION, ModelType.STRING, true)
+                    .setAllowExpression(true)
+                    .setValidator(new StringLengthValidator(1, true, true))
+                    .build();
+
+    static final SimpleAttributeDefinition GC_GRACE_SECONDS =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.GC_GRACE_SECONDS, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setValidator(new IntRangeValidator(0, true, true))
+                    .build();
+
+    // the wait blocks a management thread, capped like run-stress
+    static final SimpleAttributeDefinition SETTLE_TIME =
+            new SimpleAttributeDefinitionBuilder(CassandraModel.SETTLE_TIME, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(0))
+                    .setValidator(new IntRangeValidator(0, 120, true, true))
+                    .build();
+
+    static final SimpleOperationDefinition DEFINITION =
+            new SimpleOperationDefinitionBuilder(CassandraModel.SET_TABLE_OPTIONS,
+                    CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.KEYSPACE, CassandraModel.TABLE))
+                    .setParameters(COMPACTION_STRATEGY, COMPRESSION_CHUNK_LENGTH, BLOOM_FILTER_FP_CHANCE,
+                            CACHING_KEYS, CACHING_ROWS_PER_PARTITION, GC_GRACE_SECONDS, SETTLE_TIME)
+                    .setRuntimeOnly()
+                    .build();
+
+    static final TableOptionsHandler INSTANCE = new TableOptionsHandler();
+
+    private static final long SETTLE_POLL_INTERVAL = 500;
+
+    // the options every compaction strategy understands, carried over when the strategy changes
+    private static final List<String> COMMON_COMPACTION_OPTIONS = Collections.unmodifiableList(Arrays.asList(
+            "enabled", "tombstone_threshold", "tombstone_compaction_interval", "unchecked_tombstone_compaction", "min_threshold", "max_threshold"));
+
+    private TableOptionsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        final ModelNode compactionStrategy = COMPACTION_STRATEGY.resolveModelAttribute(context, operation);
+        final ModelNode chunkLength = COMPRESSION_CHUNK_LENGTH.resolveModelAttribute(context, operation);
+        final ModelNode bloomFilterFpChance = BLOOM_FILTER_FP_CHANCE.resolveModelAttribute(context, operation);
+        final ModelNode cachingKeys = CACHING_KEYS.resolveModelAttribute(context, operation);
+        final ModelNode cachingRows = CACHING_ROWS_PER_PARTITION.resolveModelAttribute(context, operation);
+        final ModelNode gcGraceSeconds = GC_GRACE_SECONDS.resolveModelAttribute(context, operation);
+        final int settleTime = SETTLE_TIME.resolveModelAttribute(context, operation).asInt();
+        if (service == null) {
+            throw notRunning(operation);
+        }
+
+        final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+        final String keyspace = address.getElement(address.size() - 2).getValue();
+        final String table = address.getLastElement().getValue();
+        final CFMetaData metaData = Schema.instance.getCFMetaData(keyspace, table);
+        if (metaData == null) {
+            throw new OperationFailedException("Table " + keyspace + "." + table + " doesn't exist");
+        }
+
+        // the map options replace the current ones, the options that aren't changed are carried over
+        final Map<String, String> options = new LinkedHashMap<String, String>();
+        if (compactionStrategy.isDefined()) {
+            options.put("compaction", map(compactionOptions(compactionStrategy.asString(),
+                    metaData.compactionStrategyClass.getName(), metaData.compactionStrategyOptions)));
+        }
+        if (chunkLength.isDefined()) {
+            final CompressionParameters compression = metaData.compressionParameters();
+            if (compression.sstableCompressor == null) {
+                throw new OperationFailedException("Compression is disabled for table " + keyspace + "." + table);
+            }
+            final Map<String, String> compressionOptions = new LinkedHashMap<String, String>(compression.asThriftOptions());
+            compressionOptions.put(CompressionParameters.CHUNK_LENGTH_KB, chunkLength.asString());
+            options.put("compression", map(compressionOptions));
+        }
+        if (bloomFilterFpChance.isDefined()) {
+            options.put("bloom_filter_fp_chance", String.valueOf(bloomFilterFpChance.asDouble()));
+        }
+        if (cachingKeys.isDefined() || cachingRows.isDefined()) {
+            final CachingOptions caching = metaData.getCaching();
+            final Map<String, String> cachingOptions = new LinkedHashMap<String, String>();
+            cachingOptions.put("keys", cachingKeys.isDefined() ? cachingKeys.asString() : caching.keyCache.toString());
+            cachingOptions.put("rows_per_partition", cachingRows.isDefined() ? cachingRows.asString() : caching.rowCache.toString());
+            options.put("caching", map(cachingOptions));
+        }
+        if (gcGraceSeconds.isDefined()) {
+            options.put("gc_grace_seconds", gcGraceSeconds.asString());
+        }
+        if (options.isEmpty()) {
+            throw new OperationFailedException("No table option to change");
+        }
+
+        final String statement = alterTable(keyspace, table, options);
+        final ModelNode result = context.getResult();
+        result.get(CassandraModel.STATEMENT).set(statement);
+        snapshot(keyspace, table, result.get(CassandraModel.BEFORE));
+        final ModelNode readsBefore = reads(keyspace, table);
+        try {
+            // a schema statement, the consistency level doesn't apply
+            new LocalCqlSession(MoreExecutors.sameThreadExecutor(), ConsistencyLevel.ONE, 1, LocalCqlSession.DEFAULT_BORROW_TIMEOUT, 1).execute(statement);
+        } catch (CassandraException e) {
+            throw new OperationFailedException("Failed to change the options of table " + keyspace + "." + table + ": " + e.getMessage());
+        }
+        CassandraLogger.LOGGER.infof("Changed the options of table %s.%s: %s", keyspace, table, statement);
+
+        if (settleTime > 0) {
+            awaitCompactions(keyspace, table, TimeUnit.SECONDS.toMillis(settleTime));
+        }
+        snapshot(keyspace, table, result.get(CassandraModel.AFTER));
+        readLatency(readsBefore, reads(keyspace, table), result.get(CassandraModel.READ_LATENCY));
+    }
+
+    /**
+     * Waits until the compactions of the table have settled, i.e. the SSTables have been rewritten for a new compaction strategy.
+     * <p/>
+     * Right after the change the new strategy hasn't estimated its work yet and no compaction is pending,
+     * so a background compaction of the table is submitted and waited for first. It submits the next one
+     * as long as there is work, the table has settled once none is pending or running.
+     */
+    private static void awaitCompactions(String keyspace, String table, long timeout) throws OperationFailedException {
+        final long deadline = System.currentTimeMillis() + timeout;
+        try {
+            for (Future<?> compaction : CompactionManager.instance.submitBackground(Keyspace.open(keyspace).getColumnFamilyStore(table))) {
+                compaction.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+            while (System.currentTimeMillis() < deadline) {
+                final ModelNode pending = CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "PendingCompactions"), CassandraMetrics.VALUE);
+                if ((!pending.isDefined() || pending.asInt() == 0) && !isCompacting(keyspace, table)) {
+                    return;
+                }
+                Thread.sleep(SETTLE_POLL_INTERVAL);
+            }
+        } catch (TimeoutException e) {
+            // the settle time is over, the numbers after the change are read as they are
+        } catch (ExecutionException e) {
+            CassandraLogger.LOGGER.debugf(e.getCause(), "Compaction of table %s.%s failed", keyspace, table);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException("Interrupted while waiting for the compactions of table " + keyspace + "." + table);
+        }
+    }
+
+    private static boolean isCompacting(String keyspace, String table) {
+        for (Map<String, String> compaction : CompactionManager.instance.getCompactions()) {
+            if (keyspace.equals(compaction.get("keyspace")) && table.equals(compaction.get("columnfamily"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The compaction map replaces the current one. The options of the current strategy are carried over
+     * if it stays the same, only the common ones otherwise: the options of one strategy are rejected by another.
+     *
+     * @param strategy the new strategy, the simple or fully qualified name of its class
+     * @param currentClass the fully qualified class name of the current strategy
+     */
+    static Map<String, String> compactionOptions(String strategy, String currentClass, Map<String, String> currentOptions) {
+        final boolean sameStrategy = strategy.equals(currentClass)
+                || strategy.equals(currentClass.substring(currentClass.lastIndexOf('.') + 1));
+        final Map<String, String> options = new LinkedHashMap<String, String>();
+        options.put("class", strategy);
+        for (Map.Entry<String, String> option : currentOptions.entrySet()) {
+            if (sameStrategy || COMMON_COMPACTION_OPTIONS.contains(option.getKey())) {
+                options.put(option.getKey(), option.getValue());
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @param options the option names and their CQL values
+     */
+    static String alterTable(String keyspace, String table, Map<String, String> options) {
+        final StringBuilder statement = new StringBuilder("ALTER TABLE ")
+                .append(identifier(keyspace)).append('.').append(identifier(table)).append(" WITH ");
+        String separator = "";
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            statement.append(separator).append(option.getKey()).append(" = ").append(option.getValue());
+            separator = " AND ";
+        }
+        return statement.toString();
+    }
+
+    private static void snapshot(String keyspace, String table, ModelNode target) {
+        final ModelNode options = target.get(CassandraModel.OPTIONS);
+        final CFMetaData metaData = Schema.instance.getCFMetaData(keyspace, table);
+        if (metaData != null) {
+            options.get(CassandraModel.COMPACTION_STRATEGY).set(metaData.compactionStrategyClass.getSimpleName());
+            if (metaData.compressionParameters().sstableCompressor != null) {
+                options.get(CassandraModel.COMPRESSION_CHUNK_LENGTH).set(metaData.compressionParameters().chunkLength() / 1024);
+            }
+            options.get(CassandraModel.BLOOM_FILTER_FP_CHANCE).set(metaData.getBloomFilterFpChance());
+            options.get(CassandraModel.CACHING_KEYS).set(metaData.getCaching().keyCache.toString());
+            options.get(CassandraModel.CACHING_ROWS_PER_PARTITION).set(metaData.getCaching().rowCache.toString());
+            options.get(CassandraModel.GC_GRACE_SECONDS).set(metaData.getGcGraceSeconds());
+        }
+        target.get(CassandraModel.SSTABLE_COUNT).set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "LiveSSTableCount"), CassandraMetrics.VALUE));
+        target.get(CassandraModel.PENDING_COMPACTIONS).set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "PendingCompactions"), CassandraMetrics.VALUE));
+    }
+
+    /**
+     * The read latency timer of a table never decays, its percentiles cover all reads since the node started.
+     * The reads of the settle time are told apart by the count and total latency (in microseconds) of the reads.
+     */
+    private static ModelNode reads(String keyspace, String table) {
+        final ModelNode reads = new ModelNode();
+        reads.get(CassandraModel.COUNT).set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "ReadLatency"), CassandraMetrics.COUNT));
+        reads.get(CassandraModel.TOTAL).set(CassandraMetrics.read(CassandraMetrics.table(keyspace, table, "ReadTotalLatency"), CassandraMetrics.COUNT));
+        return reads;
+    }
+
+    /**
+     * Sets the number and mean latency (in microseconds) of the reads between the two readings of {@link #reads}.
+     */
+    static ModelNode readLatency(ModelNode before, ModelNode after, ModelNode target) {
+        if (!before.hasDefined(CassandraModel.COUNT) || !before.hasDefined(CassandraModel.TOTAL)
+                || !after.hasDefined(CassandraModel.COUNT) || !after.hasDefined(CassandraModel.TOTAL)) {
+            return target;
+        }
+        final long count = after.get(CassandraModel.COUNT).asLong() - before.get(CassandraModel.COUNT).asLong();
+        target.get(CassandraModel.COUNT).set(count);
+        if (count > 0) {
+            target.get(CassandraModel.MEAN).set((after.get(CassandraModel.TOTAL).asLong() - before.get(CassandraModel.TOTAL).asLong()) / (double) count);
+        }
+        return target;
+    }
+
+    static String map(Map<String, String> map) {
+        final StringBuilder result = new StringBuilder("{");
+        String separator = "";
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            result.append(separator).append(literal(entry.getKey())).append(": ").append(literal(entry.getValue()));
+            separator = ", ";
+        }
+        return result.append('}').toString();
+    }
+
+    static String literal(String value) {
+        return '\'' + value.replace("'", "''") + '\'';
+    }
+
+    // the names are read from the node as they are, quoted they keep their case
+    static String identifier(String name) {
+        return '"' + name.replace("\"", "\"\"") + '"';
+    }
+}
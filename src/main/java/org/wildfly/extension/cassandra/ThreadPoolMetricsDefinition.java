@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.codahale.metrics.MetricRegistry;
+import org.apache.cassandra.metrics.DefaultNameFactory;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Read-only runtime resource exposing the task counters of the stage executors.
+ * Each stage is an object attribute, so all counters of a stage are read at once.
+ */
+public class ThreadPoolMetricsDefinition extends SimpleResourceDefinition {
+
+    /**
+     * The stage executors that are exposed, along with their metric scope.
+     */
+    enum StagePool {
+        READ(CassandraModel.READ, "request", "ReadStage"),
+        MUTATION(CassandraModel.MUTATION, "request", "MutationStage"),
+        GOSSIP(CassandraModel.GOSSIP, "internal", "GossipStage"),
+        FLUSH(CassandraModel.FLUSH, "internal", "MemtableFlushWriter");
+
+        private final String attributeName;
+        private final String path;
+        private final String scope;
+
+        StagePool(String attributeName, String path, String scope) {
+            this.attributeName = attributeName;
+            this.path = path;
+            this.scope = scope;
+        }
+
+        String getAttributeName() {
+            return attributeName;
+        }
+
+        /**
+         * @return the name of a metric of the stage in the metric registry, like the node's ThreadPoolMetricNameFactory builds it
+         */
+        String registryName(String name) {
+            return MetricRegistry.name(DefaultNameFactory.GROUP_NAME, "ThreadPools", name, path + "." + scope);
+        }
+
+        static StagePool forAttribute(String attributeName) {
+            for (StagePool pool : values()) {
+                if (pool.attributeName.equals(attributeName)) {
+                    return pool;
+                }
+            }
+            throw new IllegalArgumentException(attributeName);
+        }
+    }
+
+    static final SimpleAttributeDefinition ACTIVE_TASKS = counter(CassandraModel.ACTIVE_TASKS);
+    static final SimpleAttributeDefinition PENDING_TASKS = counter(CassandraModel.PENDING_TASKS);
+    static final SimpleAttributeDefinition COMPLETED_TASKS = counter(CassandraModel.COMPLETED_TASKS);
+    static final SimpleAttributeDefinition CURRENTLY_BLOCKED_TASKS = counter(CassandraModel.CURRENTLY_BLOCKED_TASKS);
+    static final SimpleAttributeDefinition TOTAL_BLOCKED_TASKS = counter(CassandraModel.TOTAL_BLOCKED_TASKS);
+
+    static final ThreadPoolMetricsDefinition INSTANCE = new ThreadPoolMetricsDefinition();
+
+    private ThreadPoolMetricsDefinition() {
+        super(CassandraExtension.THREAD_POOL_METRICS_PATH,
+                CassandraExtension.getResourceDescriptionResolver(CassandraModel.CLUSTER, CassandraModel.RUNTIME_METRICS, CassandraModel.THREAD_POOLS));
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        for (StagePool pool : StagePool.values()) {
+            AttributeDefinition attr = ObjectTypeAttributeDefinition.Builder.of(pool.getAttributeName(),
+                    ACTIVE_TASKS, PENDING_TASKS, COMPLETED_TASKS, CURRENTLY_BLOCKED_TASKS, TOTAL_BLOCKED_TASKS)
+                    .setStorageRuntime()
+                    .build();
+            resourceRegistration.registerMetric(attr, ThreadPoolMetricsHandler.INSTANCE);
+        }
+    }
+
+    private static SimpleAttributeDefinition counter(String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                .setStorageRuntime()
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.cassandra.ThreadPoolMetricsDefinition.StagePool;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+/**
+ * Reads the task counters of a stage executor straight from the metric registry of the running node.
+ * The counters are read on every read-resource of the runtime metrics, so they skip the JMX view of the registry
+ * ({@link CassandraMetrics}): a lookup in the registry and a call of the gauge, no object name or MBean server involved.
+ */
+class ThreadPoolMetricsHandler extends ClusterRuntimeHandler {
+
+    static final ThreadPoolMetricsHandler INSTANCE = new ThreadPoolMetricsHandler();
+
+    private ThreadPoolMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation, CassandraService service) throws OperationFailedException {
+        if (service == null) {
+            return;
+        }
+
+        final StagePool pool = StagePool.forAttribute(operation.require(NAME).asString());
+        final ModelNode result = context.getResult();
+        result.get(CassandraModel.ACTIVE_TASKS).set(read(pool, "ActiveTasks"));
+        result.get(CassandraModel.PENDING_TASKS).set(read(pool, "PendingTasks"));
+        result.get(CassandraModel.COMPLETED_TASKS).set(read(pool, "CompletedTasks"));
+        result.get(CassandraModel.CURRENTLY_BLOCKED_TASKS).set(read(pool, "CurrentlyBlockedTasks"));
+        result.get(CassandraModel.TOTAL_BLOCKED_TASKS).set(read(pool, "TotalBlockedTasks"));
+    }
+
+    /**
+     * Reads a gauge or counter of a stage. Metrics that are not (yet) registered resolve to an undefined node.
+     */
+    static ModelNode read(StagePool pool, String name) {
+        final Metric metric = CassandraMetricsRegistry.Metrics.getMetrics().get(pool.registryName(name));
+        final ModelNode value = new ModelNode();
+        if (metric instanceof Gauge) {
+            final Object gauge = ((Gauge<?>) metric).getValue();
+            if (gauge instanceof Number) {
+                value.set(((Number) gauge).longValue());
+            }
+        } else if (metric instanceof Counting) {
+            value.set(((Counting) metric).getCount());
+        }
+        return value;
+    }
+}
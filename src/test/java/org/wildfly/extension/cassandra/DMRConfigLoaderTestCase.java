@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.config.Config;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the guard that keeps a second cluster from starting on the cassandra singletons of the first one.
+ */
+public class DMRConfigLoaderTestCase {
+
+    @Before
+    @After
+    public void reset() {
+        DMRConfigLoader.reset();
+    }
+
+    @Test
+    public void testFirstClusterOwnsCassandra() throws Exception {
+        Config config = new Config();
+        Assert.assertTrue(DMRConfigLoader.activate("a", config));
+        Assert.assertFalse(DMRConfigLoader.activate("b", new Config()));
+        Assert.assertEquals("a", DMRConfigLoader.getActiveCluster());
+        Assert.assertSame(config, new DMRConfigLoader().loadConfig());
+    }
+
+    @Test
+    public void testRestartOfTheOwner() throws Exception {
+        Assert.assertTrue(DMRConfigLoader.activate("a", new Config()));
+        new DMRConfigLoader().loadConfig();
+        Config restarted = new Config();
+        Assert.assertTrue(DMRConfigLoader.activate("a", restarted));
+        Assert.assertSame(restarted, new DMRConfigLoader().loadConfig());
+    }
+
+    @Test
+    public void testFailedStartBeforeInitializationReleases() throws Exception {
+        Assert.assertTrue(DMRConfigLoader.activate("a", new Config()));
+        DMRConfigLoader.release("a");
+        Assert.assertNull(DMRConfigLoader.getActiveCluster());
+        Assert.assertTrue(DMRConfigLoader.activate("b", new Config()));
+    }
+
+    @Test
+    public void testOwnershipKeptOnceInitialized() throws Exception {
+        Assert.assertTrue(DMRConfigLoader.activate("a", new Config()));
+        new DMRConfigLoader().loadConfig();
+        DMRConfigLoader.release("a");
+        Assert.assertEquals("a", DMRConfigLoader.getActiveCluster());
+        Assert.assertFalse(DMRConfigLoader.activate("b", new Config()));
+    }
+
+    @Test
+    public void testReleaseOfAnotherCluster() throws Exception {
+        Assert.assertTrue(DMRConfigLoader.activate("a", new Config()));
+        DMRConfigLoader.release("b");
+        Assert.assertEquals("a", DMRConfigLoader.getActiveCluster());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoadWithoutCluster() throws Exception {
+        new DMRConfigLoader().loadConfig();
+    }
+}
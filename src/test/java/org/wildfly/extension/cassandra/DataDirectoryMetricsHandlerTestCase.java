@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wildfly.extension.cassandra;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * Tests the single walk behind the metrics of a data directory.
+ */
+public class DataDirectoryMetricsHandlerTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLiveSSTable() {
+        File directory = new File("/data/ks/tbl-0123456789abcdef0123456789abcdef");
+        Assert.assertTrue(DataDirectoryMetricsHandler.DiskUsage.isLiveSSTable(directory, "la-1-big-Data.db"));
+        Assert.assertTrue(DataDirectoryMetricsHandler.DiskUsage.isLiveSSTable(directory, "ks-tbl-ka-1-Data.db"));
+        Assert.assertFalse(DataDirectoryMetricsHandler.DiskUsage.isLiveSSTable(directory, "tmp-la-2-big-Data.db"));
+        Assert.assertFalse(DataDirectoryMetricsHandler.DiskUsage.isLiveSSTable(directory, "tmplink-la-3-big-Data.db"));
+        Assert.assertFalse(DataDirectoryMetricsHandler.DiskUsage.isLiveSSTable(directory, "ks-tbl-tmp-ka-4-Data.db"));
+        Assert.assertFalse(DataDirectoryMetricsHandler.DiskUsage.isLiveSSTable(directory, "la-1-big-Index.db"));
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        File table = folder.newFolder("ks", "tbl-0123456789abcdef0123456789abcdef");
+        write(new File(table, "la-1-big-Data.db"), 100);
+        write(new File(table, "la-1-big-Index.db"), 10);
+        write(new File(table, "tmp-la-2-big-Data.db"), 50);
+        File snapshot = new File(table, "snapshots/before");
+        Assert.assertTrue(snapshot.mkdirs());
+        write(new File(snapshot, "la-1-big-Data.db"), 100);
+
+        DataDirectoryMetricsHandler.DiskUsage usage = DataDirectoryMetricsHandler.DiskUsage.read(folder.getRoot());
+        Assert.assertEquals(260, usage.bytes);
+        Assert.assertEquals(1, usage.sstables);
+        Assert.assertTrue(usage.free > 0);
+    }
+
+    private static void write(File file, int size) throws Exception {
+        Files.write(file.toPath(), new byte[size]);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+
+/**
+ * Tests the disk inspection behind the directory layout check and {@code run-disk-benchmark}.
+ */
+public class DisksTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFileStoreOfMissingDirectory() throws Exception {
+        File missing = new File(folder.getRoot(), "not/created/yet");
+        Assert.assertEquals(Files.getFileStore(folder.getRoot().toPath()), Disks.fileStore(missing.getPath()));
+        Assert.assertFalse(missing.exists());
+    }
+
+    @Test
+    public void testBenchmark() throws Exception {
+        File directory = new File(folder.getRoot(), "data");
+        ModelNode result = Disks.benchmark(directory, 1024 * 1024);
+
+        Assert.assertTrue(result.get(CassandraModel.SEQUENTIAL_WRITE).asDouble() > 0);
+        // a file of 1MB is never larger than the physical memory, the reads are only measured if it has been evicted
+        boolean evicted = result.get(CassandraModel.PAGE_CACHE_EVICTED).asBoolean();
+        Assert.assertEquals(evicted, result.hasDefined(CassandraModel.RANDOM_READ));
+        Assert.assertEquals(evicted, result.hasDefined(CassandraModel.RANDOM_READS_PER_SECOND));
+        // the temporary file is removed
+        Assert.assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testPhysicalMemory() throws Exception {
+        Assert.assertTrue(Disks.physicalMemory() > 0);
+    }
+}
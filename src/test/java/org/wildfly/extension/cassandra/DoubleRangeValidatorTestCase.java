@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleRangeValidatorTestCase {
+
+    @Test
+    public void testInclusiveBounds() throws Exception {
+        DoubleRangeValidator validator = new DoubleRangeValidator(0.0, true, 1.0, true, true);
+        validator.validateParameter("ratio", new ModelNode(0.0));
+        validator.validateParameter("ratio", new ModelNode(0.5));
+        validator.validateParameter("ratio", new ModelNode(1.0));
+        validator.validateParameter("ratio", new ModelNode(1));
+        validator.validateParameter("ratio", new ModelNode());
+        validator.validateParameter("ratio", new ModelNode(new ValueExpression("${ratio:2.0}")));
+        assertInvalid(validator, -0.1);
+        assertInvalid(validator, 1.1);
+    }
+
+    @Test
+    public void testExclusiveLowerBound() throws Exception {
+        DoubleRangeValidator validator = new DoubleRangeValidator(0.0, false, 1.0, false, false);
+        validator.validateParameter("ratio", new ModelNode(0.001));
+        validator.validateParameter("ratio", new ModelNode(1.0));
+        assertInvalid(validator, 0.0);
+        try {
+            validator.validateParameter("ratio", new ModelNode());
+            Assert.fail("undefined value accepted");
+        } catch (OperationFailedException expected) {
+        }
+    }
+
+    private static void assertInvalid(DoubleRangeValidator validator, double value) {
+        try {
+            validator.validateParameter("ratio", new ModelNode(value));
+            Assert.fail(value + " accepted");
+        } catch (OperationFailedException expected) {
+            Assert.assertTrue(expected.getMessage(), expected.getMessage().contains("ratio"));
+        }
+    }
+}
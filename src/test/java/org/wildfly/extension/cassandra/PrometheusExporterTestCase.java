@@ -0,0 +1,176 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wildfly.extension.cassandra;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanInfo;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the rendering of the {@link PrometheusExporter}, against metrics registered like the ones of the node.
+ */
+public class PrometheusExporterTestCase {
+
+    private final List<ObjectName> registered = new ArrayList<ObjectName>();
+
+    @Before
+    public void registerMetrics() throws Exception {
+        register("type=ColumnFamily,keyspace=ks,scope=users,name=ReadLatency",
+                "50thPercentile", 100d, "95thPercentile", 200d, "99thPercentile", 300d, "999thPercentile", 400d, "Count", 4L);
+        register("type=ColumnFamily,keyspace=ks,scope=users,name=ReadTotalLatency", "Count", 1500000L);
+        register("type=ColumnFamily,keyspace=ks,scope=users,name=SSTablesPerReadHistogram",
+                "50thPercentile", 1d, "95thPercentile", 2d, "99thPercentile", 2d, "999thPercentile", 3d, "Count", 4L, "Mean", 1.5d);
+        register("type=Compaction,name=CompletedTasks", "Value", 7L);
+    }
+
+    @After
+    public void unregisterMetrics() throws Exception {
+        for (ObjectName name : registered) {
+            CassandraMetrics.server().unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void testLatency() throws Exception {
+        List<String> lines = scrape("test");
+        Assert.assertTrue(lines.contains("# TYPE cassandra_table_read_latency_seconds summary"));
+        Assert.assertTrue(lines.contains("cassandra_table_read_latency_seconds{cluster=\"test\",keyspace=\"ks\",table=\"users\",quantile=\"0.5\"} 1.0E-4"));
+        Assert.assertTrue(lines.contains("cassandra_table_read_latency_seconds{cluster=\"test\",keyspace=\"ks\",table=\"users\",quantile=\"0.999\"} 4.0E-4"));
+        Assert.assertTrue(lines.contains("cassandra_table_read_latency_seconds_count{cluster=\"test\",keyspace=\"ks\",table=\"users\"} 4"));
+        // from the total latency, in microseconds
+        Assert.assertTrue(lines.contains("cassandra_table_read_latency_seconds_sum{cluster=\"test\",keyspace=\"ks\",table=\"users\"} 1.5"));
+    }
+
+    @Test
+    public void testHistogramSum() throws Exception {
+        List<String> lines = scrape("test");
+        Assert.assertTrue(lines.contains("cassandra_table_sstables_per_read{cluster=\"test\",keyspace=\"ks\",table=\"users\",quantile=\"0.95\"} 2.0"));
+        Assert.assertTrue(lines.contains("cassandra_table_sstables_per_read_count{cluster=\"test\",keyspace=\"ks\",table=\"users\"} 4"));
+        Assert.assertTrue(lines.contains("cassandra_table_sstables_per_read_sum{cluster=\"test\",keyspace=\"ks\",table=\"users\"} 6.0"));
+    }
+
+    @Test
+    public void testCompletedCompactionsAreCounted() throws Exception {
+        List<String> lines = scrape("test");
+        Assert.assertTrue(lines.contains("# TYPE cassandra_compaction_completed_tasks_total counter"));
+        Assert.assertTrue(lines.contains("cassandra_compaction_completed_tasks_total{cluster=\"test\"} 7"));
+    }
+
+    @Test
+    public void testUnregisteredMetricsAreLeftOut() throws Exception {
+        List<String> lines = scrape("test");
+        for (String line : lines) {
+            Assert.assertFalse(line, line.contains("write_latency"));
+        }
+    }
+
+    @Test
+    public void testLabelsAreEscaped() throws Exception {
+        List<String> lines = scrape("a\"b\\c");
+        Assert.assertTrue(lines.contains("cassandra_compaction_completed_tasks_total{cluster=\"a\\\"b\\\\c\"} 7"));
+    }
+
+    @Test
+    public void testScrapesAreStable() throws Exception {
+        PrometheusExporter exporter = new PrometheusExporter("test");
+        Assert.assertEquals(scrape(exporter), scrape(exporter));
+    }
+
+    private List<String> scrape(String clusterName) throws Exception {
+        return scrape(new PrometheusExporter(clusterName));
+    }
+
+    private static List<String> scrape(PrometheusExporter exporter) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.scrape(out);
+        return Arrays.asList(out.toString("UTF-8").split("\n"));
+    }
+
+    private void register(String properties, Object... attributes) throws Exception {
+        Map<String, Object> values = new HashMap<String, Object>();
+        for (int i = 0; i < attributes.length; i += 2) {
+            values.put((String) attributes[i], attributes[i + 1]);
+        }
+        ObjectName name = CassandraMetrics.metric(properties);
+        CassandraMetrics.server().registerMBean(new Metric(values), name);
+        registered.add(name);
+    }
+
+    private static final class Metric implements DynamicMBean {
+
+        private final Map<String, Object> values;
+
+        private Metric(Map<String, Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if (!values.containsKey(attribute)) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return values.get(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            return new MBeanInfo(Metric.class.getName(), null, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.cassandra.exceptions.OverloadedException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the limit of concurrent queries of a {@link LocalCqlSession}.
+ */
+public class SessionPermitsTestCase {
+
+    private ListeningExecutorService executor;
+
+    @Before
+    public void createExecutor() {
+        executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(1));
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAcquireAndRelease() throws Exception {
+        SessionPermits permits = new SessionPermits(2, 10);
+        permits.acquire();
+        permits.acquire();
+        Assert.assertEquals(2, permits.getInFlightRequests());
+        Assert.assertEquals(2, permits.getRequests());
+        permits.release();
+        Assert.assertEquals(1, permits.getInFlightRequests());
+        permits.acquire();
+        Assert.assertEquals(3, permits.getRequests());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        SessionPermits permits = new SessionPermits(1, 50);
+        permits.acquire();
+        long start = System.nanoTime();
+        try {
+            permits.acquire();
+            Assert.fail("acquired more permits than max-concurrent-requests");
+        } catch (OverloadedException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("50 ms"));
+        }
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals(1, permits.getInFlightRequests());
+        Assert.assertEquals(1, permits.getRequests());
+    }
+
+    @Test
+    public void testWaitTime() throws Exception {
+        final SessionPermits permits = new SessionPermits(1, 1000);
+        permits.acquire();
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                sleep(20);
+                permits.release();
+            }
+        });
+        permits.acquire();
+        Assert.assertTrue(permits.getMaxBorrowWaitTime(TimeUnit.MILLISECONDS) >= 10);
+        Assert.assertTrue(permits.getAverageBorrowWaitTime(TimeUnit.MILLISECONDS) >= 5);
+    }
+
+    @Test
+    public void testSubmitAcquiresBeforeQueueing() throws Exception {
+        final SessionPermits permits = new SessionPermits(1, 60000);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        ListenableFuture<String> first = permits.submit(executor, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                running.countDown();
+                proceed.await();
+                return "first";
+            }
+        });
+        Assert.assertTrue(running.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, permits.getInFlightRequests());
+
+        // fails in the caller instead of queueing behind the first task, without waiting for the borrow timeout
+        ListenableFuture<String> second = permits.submit(executor, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "second";
+            }
+        });
+        Assert.assertTrue(second.isDone());
+        try {
+            second.get();
+            Assert.fail("queued more tasks than max-concurrent-requests");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof OverloadedException);
+        }
+
+        proceed.countDown();
+        Assert.assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        waitForRelease(permits);
+        Assert.assertEquals("third", permits.submit(executor, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "third";
+            }
+        }).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedTaskReleases() throws Exception {
+        SessionPermits permits = new SessionPermits(1, 50);
+        ListenableFuture<String> failed = permits.submit(executor, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                throw new IllegalStateException("failed");
+            }
+        });
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        waitForRelease(permits);
+    }
+
+    @Test
+    public void testRejectedTaskReleases() throws Exception {
+        SessionPermits permits = new SessionPermits(1, 50);
+        executor.shutdown();
+        ListenableFuture<String> rejected = permits.submit(executor, new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "rejected";
+            }
+        });
+        Assert.assertTrue(rejected.isDone());
+        Assert.assertEquals(0, permits.getInFlightRequests());
+        permits.acquire();
+    }
+
+    // the permit is released after the future completes
+    private static void waitForRelease(SessionPermits permits) {
+        for (int i = 0; i < 500 && permits.getInFlightRequests() > 0; i++) {
+            sleep(10);
+        }
+        Assert.assertEquals(0, permits.getInFlightRequests());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
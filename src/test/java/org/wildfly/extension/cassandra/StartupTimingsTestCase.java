@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Tests the detection of the startup phases from the milestones cassandra logs.
+ */
+public class StartupTimingsTestCase {
+
+    @Test
+    public void testPhasesFromMilestones() throws Exception {
+        StartupTimings timings = new StartupTimings();
+        timings.begin(StartupTimings.Phase.DIRECTORY_SETUP);
+        timings.begin(StartupTimings.Phase.SCHEMA_LOAD);
+        Assert.assertFalse(timings.hasReached(StartupTimings.Phase.COMMIT_LOG_REPLAY));
+
+        timings.publish(record("Replaying /data/commitlog/CommitLog-5-1.log"));
+        Assert.assertTrue(timings.hasReached(StartupTimings.Phase.COMMIT_LOG_REPLAY));
+        Assert.assertFalse(timings.hasReached(StartupTimings.Phase.RING_JOIN));
+        Thread.sleep(5);
+        timings.publish(record("Log replay complete, {} replayed mutations", 500));
+        timings.publish(record("Waiting for gossip to settle before accepting client requests..."));
+        timings.begin(StartupTimings.Phase.CLIENT_TRANSPORTS);
+        timings.finish();
+
+        ModelNode result = timings.toModelNode();
+        for (StartupTimings.Phase phase : StartupTimings.Phase.values()) {
+            Assert.assertTrue(phase.getAttributeName(), result.get(phase.getAttributeName()).asLong() >= 0);
+        }
+        Assert.assertTrue(result.get(CassandraModel.TOTAL).asLong() >= 5);
+        Assert.assertTrue(result.get(CassandraModel.COMMIT_LOG_REPLAY).asLong() >= 5);
+        Assert.assertEquals(500, timings.getReplayedMutations());
+        Assert.assertTrue(timings.getReplayRate() > 0);
+    }
+
+    @Test
+    public void testMissingMilestone() throws Exception {
+        StartupTimings timings = new StartupTimings();
+        timings.begin(StartupTimings.Phase.DIRECTORY_SETUP);
+        timings.begin(StartupTimings.Phase.SCHEMA_LOAD);
+        // no commit log to replay
+        timings.publish(record("Waiting for gossip to settle before accepting client requests..."));
+        timings.finish();
+
+        ModelNode result = timings.toModelNode();
+        Assert.assertFalse(result.get(CassandraModel.COMMIT_LOG_REPLAY).isDefined());
+        Assert.assertFalse(result.get(CassandraModel.RING_JOIN).isDefined());
+        Assert.assertFalse(result.get(CassandraModel.CLIENT_TRANSPORTS).isDefined());
+        Assert.assertTrue(result.get(CassandraModel.SCHEMA_LOAD).isDefined());
+        Assert.assertTrue(result.get(CassandraModel.GOSSIP_SETTLE).isDefined());
+        Assert.assertTrue(result.get(CassandraModel.TOTAL).isDefined());
+        Assert.assertEquals(-1, timings.getReplayedMutations());
+        Assert.assertEquals(-1, timings.getReplayRate(), 0);
+    }
+
+    @Test
+    public void testReplayedMutationsFromFormattedMessage() throws Exception {
+        StartupTimings timings = new StartupTimings();
+        timings.publish(record("Replaying /data/commitlog/CommitLog-5-1.log"));
+        timings.publish(record("Log replay complete, 42 replayed mutations"));
+        Assert.assertEquals(42, timings.getReplayedMutations());
+    }
+
+    @Test
+    public void testUnrelatedMessages() throws Exception {
+        StartupTimings timings = new StartupTimings();
+        timings.publish(record(null));
+        timings.publish(record("Initializing system.local"));
+        timings.publish(record("Not replaying, no commit log"));
+        Assert.assertFalse(timings.hasReached(StartupTimings.Phase.DIRECTORY_SETUP));
+        Assert.assertFalse(timings.isFinished());
+        Assert.assertFalse(timings.toModelNode().get(CassandraModel.TOTAL).isDefined());
+    }
+
+    @Test
+    public void testOnlyFirstMilestoneCounts() throws Exception {
+        StartupTimings timings = new StartupTimings();
+        timings.begin(StartupTimings.Phase.SCHEMA_LOAD);
+        timings.publish(record("Replaying /data/commitlog/CommitLog-5-1.log"));
+        Thread.sleep(5);
+        timings.publish(record("Log replay complete, {} replayed mutations", 1));
+        // one replay message per segment
+        timings.publish(record("Replaying /data/commitlog/CommitLog-5-2.log"));
+        timings.finish();
+        Assert.assertTrue(timings.toModelNode().get(CassandraModel.COMMIT_LOG_REPLAY).asLong() >= 5);
+    }
+
+    @Test
+    public void testAttachedToCassandraLogger() throws Exception {
+        Logger logger = Logger.getLogger("org.apache.cassandra.db.commitlog.CommitLog");
+        StartupTimings timings = new StartupTimings();
+        timings.attach();
+        try {
+            logger.info("Replaying /data/commitlog/CommitLog-5-1.log");
+        } finally {
+            timings.finish();
+        }
+        Assert.assertTrue(timings.hasReached(StartupTimings.Phase.COMMIT_LOG_REPLAY));
+        Assert.assertTrue(timings.isFinished());
+
+        StartupTimings detached = new StartupTimings();
+        detached.attach();
+        detached.finish();
+        logger.info("Replaying /data/commitlog/CommitLog-5-2.log");
+        Assert.assertFalse(detached.hasReached(StartupTimings.Phase.COMMIT_LOG_REPLAY));
+    }
+
+    private static LogRecord record(String message, Object... parameters) {
+        LogRecord record = new LogRecord(Level.INFO, message);
+        record.setLoggerName("org.apache.cassandra.db.commitlog.CommitLogReplayer");
+        if (parameters.length > 0) {
+            record.setParameters(parameters);
+        }
+        return record;
+    }
+}
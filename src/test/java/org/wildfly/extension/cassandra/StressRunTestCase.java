@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wildfly.extension.cassandra;
+
+import org.apache.cassandra.utils.EstimatedHistogram;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the operation mix and the figures of a {@link StressRun}.
+ */
+public class StressRunTestCase {
+
+    @Test
+    public void testChooseByWeight() {
+        int[] weights = {2, 1, 3};
+        Assert.assertEquals(StressRun.Operation.INSERT, StressRun.choose(weights, 0));
+        Assert.assertEquals(StressRun.Operation.INSERT, StressRun.choose(weights, 1));
+        Assert.assertEquals(StressRun.Operation.READ, StressRun.choose(weights, 2));
+        Assert.assertEquals(StressRun.Operation.RANGE_READ, StressRun.choose(weights, 3));
+        Assert.assertEquals(StressRun.Operation.RANGE_READ, StressRun.choose(weights, 5));
+    }
+
+    @Test
+    public void testChooseSkipsZeroWeights() {
+        int[] weights = {0, 0, 1};
+        Assert.assertEquals(StressRun.Operation.RANGE_READ, StressRun.choose(weights, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChooseBeyondSum() {
+        StressRun.choose(new int[]{1, 1, 1}, 3);
+    }
+
+    @Test
+    public void testReadLatency() {
+        EstimatedHistogram histogram = new EstimatedHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.add(i);
+        }
+        ModelNode latency = StressRun.readLatency(histogram, new ModelNode());
+        Assert.assertEquals(1000, latency.get(CassandraModel.COUNT).asLong());
+        long p50 = latency.get(CassandraModel.P50).asLong();
+        long p99 = latency.get(CassandraModel.P99).asLong();
+        // bucket offsets are about 20% apart
+        Assert.assertTrue(String.valueOf(p50), p50 >= 500 && p50 <= 600);
+        Assert.assertTrue(String.valueOf(p99), p99 >= 990 && p99 <= 1200);
+        Assert.assertTrue(p50 <= latency.get(CassandraModel.P95).asLong());
+        Assert.assertTrue(p99 <= latency.get(CassandraModel.P999).asLong());
+        Assert.assertTrue(latency.get(CassandraModel.MAX).asLong() >= 1000);
+        Assert.assertTrue(latency.get(CassandraModel.MEAN).asLong() >= 500);
+    }
+
+    @Test
+    public void testReadLatencyOfEmptyHistogram() {
+        ModelNode latency = StressRun.readLatency(new EstimatedHistogram(), new ModelNode());
+        Assert.assertFalse(latency.isDefined());
+    }
+
+    @Test
+    public void testPerSecond() {
+        Assert.assertEquals(500d, StressRun.perSecond(1000, 2000000000L), 0.001);
+        Assert.assertEquals(0d, StressRun.perSecond(1000, 0), 0);
+    }
+
+    @Test
+    public void testLoadSize() {
+        Assert.assertEquals(1000L * 20 * 256, StressRun.loadSize(1000, 256));
+        // the limits of the parameters don't overflow
+        Assert.assertEquals(10000L * 20 * 1024 * 1024, StressRun.loadSize(10000, 1024 * 1024));
+        Assert.assertTrue(StressRun.loadSize(10000, 1024 * 1024) > StressHandler.MAX_LOAD_SIZE);
+    }
+}
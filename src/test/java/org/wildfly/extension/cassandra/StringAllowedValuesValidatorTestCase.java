@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ValueExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StringAllowedValuesValidatorTestCase {
+
+    @Test
+    public void testAllowedValues() throws Exception {
+        StringAllowedValuesValidator validator = new StringAllowedValuesValidator("heap_buffers", "offheap_objects");
+        validator.validateParameter("type", new ModelNode("heap_buffers"));
+        validator.validateParameter("type", new ModelNode("offheap_objects"));
+        validator.validateParameter("type", new ModelNode());
+        validator.validateParameter("type", new ModelNode(new ValueExpression("${type:heap_buffers}")));
+        Assert.assertEquals(2, validator.getAllowedValues().size());
+        Assert.assertEquals("heap_buffers", validator.getAllowedValues().get(0).asString());
+    }
+
+    @Test(expected = OperationFailedException.class)
+    public void testOtherValue() throws Exception {
+        new StringAllowedValuesValidator("heap_buffers", "offheap_objects").validateParameter("type", new ModelNode("HEAP_BUFFERS"));
+    }
+}
@@ -60,7 +60,7 @@ public class SubsystemParsingTestCase extends AbstractSubsystemTest {
         List<ModelNode> operations = super.parse(subsystemXml);
 
         ///Check that we have the expected number of operations
-        Assert.assertEquals(2, operations.size());
+        Assert.assertEquals(11, operations.size());
 
         //Check that each operation has the correct content
         ModelNode addSubsystem = operations.get(0);
@@ -107,6 +107,54 @@ public class SubsystemParsingTestCase extends AbstractSubsystemTest {
         super.compare(modelA, modelB);
     }
 
+    /**
+     * Tests that the batch sync mode can't be configured without a batch window
+     */
+    @Test
+    public void testBatchSyncRequiresBatchWindow() throws Exception {
+        KernelServices services = super.createKernelServicesBuilder(null).setSubsystemXml(getSubsystemXml()).build();
+        PathAddress cluster = PathAddress.pathAddress(
+                PathElement.pathElement(SUBSYSTEM, CassandraExtension.SUBSYSTEM_NAME),
+                PathElement.pathElement(CassandraModel.CLUSTER, "My Cluster"));
+        PathAddress commitLog = cluster.append(CassandraExtension.COMMIT_LOG_PATH);
+
+        ModelNode result = services.executeOperation(writeAttribute(cluster, CassandraModel.COMMIT_LOG_SYNC, new ModelNode("batch")));
+        Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+        Assert.assertEquals("periodic", readAttribute(services, cluster, CassandraModel.COMMIT_LOG_SYNC));
+
+        result = services.executeOperation(writeAttribute(commitLog, CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW, new ModelNode(0)));
+        Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+
+        result = services.executeOperation(writeAttribute(commitLog, CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW, new ModelNode(2.0)));
+        Assert.assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        result = services.executeOperation(writeAttribute(cluster, CassandraModel.COMMIT_LOG_SYNC, new ModelNode("batch")));
+        Assert.assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+
+        ModelNode undefine = new ModelNode();
+        undefine.get(OP).set(UNDEFINE_ATTRIBUTE_OPERATION);
+        undefine.get(OP_ADDR).set(commitLog.toModelNode());
+        undefine.get(NAME).set(CassandraModel.COMMIT_LOG_SYNC_BATCH_WINDOW);
+        result = services.executeOperation(undefine);
+        Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+    }
+
+    private static ModelNode writeAttribute(PathAddress address, String name, ModelNode value) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).set(address.toModelNode());
+        operation.get(NAME).set(name);
+        operation.get(VALUE).set(value);
+        return operation;
+    }
+
+    private static String readAttribute(KernelServices services, PathAddress address, String name) {
+        ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).set(address.toModelNode());
+        operation.get(NAME).set(name);
+        return services.executeOperation(operation).get(RESULT).asString();
+    }
+
     /**
      * Tests that the subsystem can be removed
      */
@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+
+package org.wildfly.extension.cassandra;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests the compaction options, the CQL statement and the read latency of {@link TableOptionsHandler}.
+ */
+public class TableOptionsHandlerTestCase {
+
+    private static final String LEVELED = "org.apache.cassandra.db.compaction.LeveledCompactionStrategy";
+
+    @Test
+    public void testSameStrategyKeepsItsOptions() {
+        Map<String, String> current = options("sstable_size_in_mb", "160", "tombstone_threshold", "0.1");
+        Map<String, String> options = TableOptionsHandler.compactionOptions("LeveledCompactionStrategy", LEVELED, current);
+        Assert.assertEquals(options("class", "LeveledCompactionStrategy", "sstable_size_in_mb", "160", "tombstone_threshold", "0.1"), options);
+    }
+
+    @Test
+    public void testSameStrategyByClassName() {
+        Map<String, String> options = TableOptionsHandler.compactionOptions(LEVELED, LEVELED, options("sstable_size_in_mb", "160"));
+        Assert.assertEquals("160", options.get("sstable_size_in_mb"));
+    }
+
+    @Test
+    public void testNewStrategyKeepsTheCommonOptions() {
+        Map<String, String> current = options("sstable_size_in_mb", "160", "enabled", "false", "unchecked_tombstone_compaction", "true");
+        Map<String, String> options = TableOptionsHandler.compactionOptions("SizeTieredCompactionStrategy", LEVELED, current);
+        Assert.assertEquals(options("class", "SizeTieredCompactionStrategy", "enabled", "false", "unchecked_tombstone_compaction", "true"), options);
+    }
+
+    @Test
+    public void testMap() {
+        Assert.assertEquals("{'class': 'LeveledCompactionStrategy', 'sstable_size_in_mb': '160'}",
+                TableOptionsHandler.map(options("class", "LeveledCompactionStrategy", "sstable_size_in_mb", "160")));
+        Assert.assertEquals("{}", TableOptionsHandler.map(options()));
+    }
+
+    @Test
+    public void testQuoting() {
+        Assert.assertEquals("'it''s'", TableOptionsHandler.literal("it's"));
+        Assert.assertEquals("\"Users\"", TableOptionsHandler.identifier("Users"));
+        Assert.assertEquals("\"a\"\"b\"", TableOptionsHandler.identifier("a\"b"));
+    }
+
+    @Test
+    public void testAlterTable() {
+        Map<String, String> options = options("gc_grace_seconds", "3600", "caching", "{'keys': 'ALL', 'rows_per_partition': 'NONE'}");
+        Assert.assertEquals("ALTER TABLE \"Ks\".\"users\" WITH gc_grace_seconds = 3600 AND caching = {'keys': 'ALL', 'rows_per_partition': 'NONE'}",
+                TableOptionsHandler.alterTable("Ks", "users", options));
+    }
+
+    private static Map<String, String> options(String... entries) {
+        Map<String, String> options = new LinkedHashMap<String, String>();
+        for (int i = 0; i < entries.length; i += 2) {
+            options.put(entries[i], entries[i + 1]);
+        }
+        return options;
+    }
+
+    @Test
+    public void testReadLatencyBetweenReadings() {
+        ModelNode latency = TableOptionsHandler.readLatency(reads(100, 5000), reads(104, 5400), new ModelNode());
+        Assert.assertEquals(4, latency.get(CassandraModel.COUNT).asLong());
+        Assert.assertEquals(100d, latency.get(CassandraModel.MEAN).asDouble(), 0);
+    }
+
+    @Test
+    public void testReadLatencyWithoutReads() {
+        ModelNode latency = TableOptionsHandler.readLatency(reads(100, 5000), reads(100, 5000), new ModelNode());
+        Assert.assertEquals(0, latency.get(CassandraModel.COUNT).asLong());
+        Assert.assertFalse(latency.hasDefined(CassandraModel.MEAN));
+        // the table has gone
+        Assert.assertFalse(TableOptionsHandler.readLatency(reads(100, 5000), new ModelNode(), new ModelNode()).isDefined());
+    }
+
+    private static ModelNode reads(long count, long total) {
+        ModelNode reads = new ModelNode();
+        reads.get(CassandraModel.COUNT).set(count);
+        reads.get(CassandraModel.TOTAL).set(total);
+        return reads;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ *  Copyright ${year}, Red Hat, Inc., and individual contributors
+ *  by the @authors tag. See the copyright.txt in the distribution for a
+ *  full listing of individual contributors.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.wildfly.extension.cassandra;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import org.apache.cassandra.metrics.CassandraMetricsRegistry;
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.extension.cassandra.ThreadPoolMetricsDefinition.StagePool;
+
+/**
+ * Tests that {@link ThreadPoolMetricsHandler} finds the stage metrics under the names the node registers them with.
+ */
+public class ThreadPoolMetricsHandlerTestCase {
+
+    private static final CassandraMetricsRegistry.MetricName ACTIVE_TASKS = name("ActiveTasks");
+    private static final CassandraMetricsRegistry.MetricName TOTAL_BLOCKED_TASKS = name("TotalBlockedTasks");
+
+    @After
+    public void unregister() {
+        CassandraMetricsRegistry.Metrics.remove(ACTIVE_TASKS);
+        CassandraMetricsRegistry.Metrics.remove(TOTAL_BLOCKED_TASKS);
+    }
+
+    @Test
+    public void testGauge() {
+        CassandraMetricsRegistry.Metrics.register(ACTIVE_TASKS, new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return 3;
+            }
+        });
+        Assert.assertEquals(3, ThreadPoolMetricsHandler.read(StagePool.READ, "ActiveTasks").asLong());
+    }
+
+    @Test
+    public void testCounter() {
+        Counter counter = CassandraMetricsRegistry.Metrics.counter(TOTAL_BLOCKED_TASKS);
+        counter.inc(7);
+        Assert.assertEquals(7, ThreadPoolMetricsHandler.read(StagePool.READ, "TotalBlockedTasks").asLong());
+    }
+
+    @Test
+    public void testNotRegistered() {
+        Assert.assertFalse(ThreadPoolMetricsHandler.read(StagePool.MUTATION, "ActiveTasks").isDefined());
+    }
+
+    // as the node's ThreadPoolMetricNameFactory names them
+    private static CassandraMetricsRegistry.MetricName name(String metric) {
+        return new CassandraMetricsRegistry.MetricName("org.apache.cassandra.metrics", "ThreadPools", metric, "request.ReadStage",
+                "org.apache.cassandra.metrics:type=ThreadPools,path=request,scope=ReadStage,name=" + metric);
+    }
+}